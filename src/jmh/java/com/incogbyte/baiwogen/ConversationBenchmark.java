@@ -0,0 +1,72 @@
+package com.incogbyte.baiwogen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The prompt side of a generation: batching endpoint templates, keying the
+ * cache, going through the scheduler and merging the parsed answers, against
+ * a Burp AI that answers instantly, so only the extension's own work is timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConversationBenchmark {
+    private static final String PREFIX = SyntheticSitemap.HOSTS[0] + "/api/";
+    private static final int PARALLELISM = 4;
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    @Param({"100", "1000"})
+    public int entries;
+
+    private List<String> templates;
+    private AiBackend backend;
+    private WordlistCache warmCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SitemapIndex index = new SitemapIndex(Fakes.siteMap(SyntheticSitemap.generate(size, 42)));
+        index.ensureBuilt();
+        PayloadExtractor extractor = new PayloadExtractor(Fakes.logging(), Runtime.getRuntime().availableProcessors());
+        try {
+            templates = new EndpointTemplater().collapse(extractor.extractAll(index.lookup(PREFIX)));
+        } finally {
+            extractor.shutdown();
+        }
+        backend = new AiScheduler(new MontoyaAiBackend(Fakes.prompt(SyntheticSitemap.aiOutput(entries))),
+            Fakes.logging(), PARALLELISM, 1, 0, 0);
+        warmCache = new WordlistCache(null, 1024);
+        conversation(warmCache).startBatchedConversation(templates, PARALLELISM);
+    }
+
+    @Benchmark
+    public String single() {
+        return conversation(new WordlistCache(null, 1024)).startConversation(templates);
+    }
+
+    @Benchmark
+    public String batched() {
+        return conversation(new WordlistCache(null, 1024)).startBatchedConversation(templates, PARALLELISM);
+    }
+
+    @Benchmark
+    public String batchedCached() {
+        return conversation(warmCache).startBatchedConversation(templates, PARALLELISM);
+    }
+
+    private AIConversationManager conversation(WordlistCache cache) {
+        return new AIConversationManager(backend, Fakes.logging(), cache, new PipelineMetrics());
+    }
+}
@@ -0,0 +1,140 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.ai.chat.Message;
+import burp.api.montoya.ai.chat.Prompt;
+import burp.api.montoya.ai.chat.PromptOptions;
+import burp.api.montoya.ai.chat.PromptResponse;
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.http.message.MimeType;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.http.message.responses.HttpResponse;
+import burp.api.montoya.internal.MontoyaObjectFactory;
+import burp.api.montoya.internal.ObjectFactoryLocator;
+import burp.api.montoya.sitemap.SiteMap;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Minimal stand-ins for the Montoya interfaces the pipeline touches, built
+ * with {@link Proxy} so benchmarks run without Burp. Each fake answers only
+ * the methods the extension calls; everything else returns a default value.
+ */
+final class Fakes {
+
+    private Fakes() {
+    }
+
+    /**
+     * Creates a proxy answering methods by name.
+     *
+     * @param type    The interface to implement
+     * @param answers Method name to answer, given the call arguments
+     * @param <T>     The interface type
+     * @return The proxy
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                case "toString":
+                    return type.getSimpleName() + " fake";
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    static ByteArray bytes(byte[] data) {
+        return proxy(ByteArray.class, Map.of(
+            "getBytes", args -> data.clone(),
+            "length", args -> data.length,
+            "getByte", args -> data[(Integer) args[0]],
+            "subArray", args -> bytes(Arrays.copyOfRange(data, (Integer) args[0], (Integer) args[1])),
+            "toString", args -> new String(data, StandardCharsets.UTF_8)));
+    }
+
+    static HttpRequest request(String method, String url, String contentType, byte[] body) {
+        ByteArray bodyBytes = bytes(body);
+        return proxy(HttpRequest.class, Map.of(
+            "url", args -> url,
+            "method", args -> method,
+            "headerValue", args -> "Content-Type".equalsIgnoreCase((String) args[0]) ? contentType : null,
+            "body", args -> bodyBytes,
+            "bodyToString", args -> new String(body, StandardCharsets.UTF_8)));
+    }
+
+    static HttpResponse response(MimeType mimeType, byte[] body) {
+        ByteArray bodyBytes = bytes(body);
+        return proxy(HttpResponse.class, Map.of(
+            "statusCode", args -> (short) 200,
+            "mimeType", args -> mimeType,
+            "body", args -> bodyBytes));
+    }
+
+    static HttpRequestResponse requestResponse(HttpRequest request, HttpResponse response) {
+        return proxy(HttpRequestResponse.class, Map.of(
+            "request", args -> request,
+            "response", args -> response,
+            "hasResponse", args -> response != null));
+    }
+
+    static SiteMap siteMap(List<HttpRequestResponse> items) {
+        return proxy(SiteMap.class, Map.of("requestResponses", args -> items));
+    }
+
+    /**
+     * A prompt that answers every call with the same text, without latency.
+     * Also installs a Montoya object factory, so the static {@code Message}
+     * and {@code PromptOptions} factories {@link MontoyaAiBackend} calls work
+     * outside Burp.
+     *
+     * @param content The response content
+     * @return The prompt
+     */
+    static Prompt prompt(String content) {
+        installObjectFactory();
+        PromptResponse response = proxy(PromptResponse.class, Map.of("content", args -> content));
+        return proxy(Prompt.class, Map.of("execute", args -> response));
+    }
+
+    private static synchronized void installObjectFactory() {
+        if (ObjectFactoryLocator.FACTORY != null) {
+            return;
+        }
+        PromptOptions[] options = new PromptOptions[1];
+        options[0] = proxy(PromptOptions.class, Map.of("withTemperature", args -> options[0]));
+        Message message = proxy(Message.class, Map.of());
+        ObjectFactoryLocator.FACTORY = proxy(MontoyaObjectFactory.class, Map.of(
+            "promptOptions", args -> options[0],
+            "systemMessage", args -> message,
+            "userMessage", args -> message,
+            "assistantMessage", args -> message));
+    }
+
+    static LogSink logging() {
+        return proxy(LogSink.class, Map.of());
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        // The zero value of any primitive type, boxed.
+        return Array.get(Array.newInstance(type, 1), 0);
+    }
+}
@@ -0,0 +1,63 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.http.message.MimeType;
+import burp.api.montoya.http.message.responses.HttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-item costs: building one payload, and mining one script bundle of
+ * increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PayloadBenchmark {
+
+    @Param({"65536", "1048576", "8388608"})
+    public int bundleBytes;
+
+    private List<RequestSample> samples;
+    private PayloadExtractor extractor;
+    private ResponseMiner miner;
+    private HttpResponse bundle;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        samples = MontoyaRequestSample.of(SyntheticSitemap.generate(1024, 7));
+        extractor = new PayloadExtractor(Fakes.logging(), 1);
+        miner = new ResponseMiner(bundleBytes);
+        bundle = Fakes.response(MimeType.SCRIPT,
+            SyntheticSitemap.script(bundleBytes).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        extractor.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Object> buildPayload() {
+        next = (next + 1) & (samples.size() - 1);
+        return extractor.buildPayload(samples.get(next));
+    }
+
+    @Benchmark
+    public ResponseMiner.Result mineBundle() {
+        return miner.mine(bundle);
+    }
+}
@@ -0,0 +1,76 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.http.message.HttpRequestResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The sitemap side of a generation: building the index, looking up a
+ * prefix, building payloads and collapsing them into endpoint templates,
+ * over synthetic sitemaps of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PipelineBenchmark {
+    private static final String PREFIX = SyntheticSitemap.HOSTS[0] + "/api/";
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<HttpRequestResponse> items;
+    private SitemapIndex index;
+    private PayloadExtractor extractor;
+    private List<RequestSample> subtree;
+    private List<Map<String, Object>> payloads;
+    private final EndpointTemplater templater = new EndpointTemplater();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = SyntheticSitemap.generate(size, 42);
+        index = new SitemapIndex(Fakes.siteMap(items));
+        index.ensureBuilt();
+        extractor = new PayloadExtractor(Fakes.logging(), Runtime.getRuntime().availableProcessors());
+        subtree = index.lookup(PREFIX);
+        payloads = extractor.extractAll(subtree);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        extractor.shutdown();
+    }
+
+    @Benchmark
+    public int buildIndex() {
+        SitemapIndex fresh = new SitemapIndex(Fakes.siteMap(items));
+        fresh.ensureBuilt();
+        return fresh.size();
+    }
+
+    @Benchmark
+    public List<RequestSample> lookup() {
+        return index.lookup(PREFIX);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> extractAll() {
+        return extractor.extractAll(subtree);
+    }
+
+    @Benchmark
+    public List<String> collapse() {
+        return templater.collapse(payloads);
+    }
+}
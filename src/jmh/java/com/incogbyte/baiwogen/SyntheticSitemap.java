@@ -0,0 +1,123 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.http.message.MimeType;
+import burp.api.montoya.http.message.responses.HttpResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates reproducible sitemaps shaped like real targets: a handful of
+ * hosts, REST paths with numeric and UUID identifiers, static assets, JSON
+ * and form bodies, and some HTML and script responses worth mining.
+ */
+final class SyntheticSitemap {
+    static final String[] HOSTS = {"https://app.example.com", "https://api.example.com", "https://cdn.example.com"};
+    private static final String[] RESOURCES = {
+        "users", "orders", "invoices", "products", "carts", "sessions", "reports", "settings", "teams", "projects"
+    };
+    private static final String[] ASSETS = {"logo.png", "main.css", "font.woff2", "icon.svg", "bg.jpg"};
+    private static final byte[] EMPTY = new byte[0];
+    private static final byte[] JSON_BODY = ("{\"user\":{\"name\":\"alice\",\"email\":\"a@example.com\"},"
+        + "\"items\":[{\"id\":1,\"qty\":2},{\"id\":7,\"qty\":1}],\"coupon\":\"SPRING\"}").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FORM_BODY = "username=alice&password=secret&remember=1&csrf=abc123"
+        .getBytes(StandardCharsets.UTF_8);
+
+    private SyntheticSitemap() {
+    }
+
+    /**
+     * Generates a sitemap.
+     *
+     * @param size The number of entries
+     * @param seed The random seed; equal seeds give equal sitemaps
+     * @return The entries
+     */
+    static List<HttpRequestResponse> generate(int size, long seed) {
+        Random random = new Random(seed);
+        // Responses are shared between entries: their content matters to mining, not their identity.
+        HttpResponse json = Fakes.response(MimeType.JSON, JSON_BODY);
+        HttpResponse html = Fakes.response(MimeType.HTML, html().getBytes(StandardCharsets.UTF_8));
+        HttpResponse script = Fakes.response(MimeType.SCRIPT, script(64 * 1024).getBytes(StandardCharsets.UTF_8));
+        HttpResponse image = Fakes.response(MimeType.IMAGE_PNG, new byte[2048]);
+
+        List<HttpRequestResponse> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String host = HOSTS[random.nextInt(HOSTS.length)];
+            String resource = RESOURCES[random.nextInt(RESOURCES.length)];
+            int kind = random.nextInt(10);
+            if (kind == 0) {
+                String url = host + "/static/" + i % 500 + "/" + ASSETS[random.nextInt(ASSETS.length)];
+                items.add(Fakes.requestResponse(Fakes.request("GET", url, null, EMPTY), image));
+            } else if (kind == 1) {
+                String url = host + "/api/v" + (1 + random.nextInt(2)) + "/" + resource;
+                items.add(Fakes.requestResponse(Fakes.request("POST", url, "application/json", JSON_BODY), json));
+            } else if (kind == 2) {
+                String url = host + "/" + resource + "/login";
+                items.add(Fakes.requestResponse(
+                    Fakes.request("POST", url, "application/x-www-form-urlencoded", FORM_BODY), html));
+            } else if (kind == 3) {
+                String url = host + "/assets/" + resource + "." + Long.toHexString(random.nextLong()) + ".js";
+                items.add(Fakes.requestResponse(Fakes.request("GET", url, null, EMPTY), script));
+            } else {
+                String id = random.nextBoolean()
+                    ? Integer.toString(random.nextInt(100_000))
+                    : new UUID(random.nextLong(), random.nextLong()).toString();
+                String url = host + "/api/v1/" + resource + "/" + id + "?page=" + random.nextInt(50) + "&sort=desc";
+                items.add(Fakes.requestResponse(Fakes.request("GET", url, null, EMPTY), json));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Generates AI output in the requested shape.
+     *
+     * @param entries The number of entries per section
+     * @return The JSON text
+     */
+    static String aiOutput(int entries) {
+        WordlistResult result = new WordlistResult();
+        for (int i = 0; i < entries; i++) {
+            String resource = RESOURCES[i % RESOURCES.length];
+            result.add(WordlistResult.FILES, resource + "-export-" + i + ".json");
+            result.add(WordlistResult.PATHS, "/api/" + resource + "/adminSettings" + i);
+            result.add(WordlistResult.PARAMS, resource + "_filter_" + i);
+        }
+        return "```json\n" + result.toJson() + "\n```";
+    }
+
+    private static String html() {
+        StringBuilder sb = new StringBuilder("<html><body>");
+        for (String resource : RESOURCES) {
+            sb.append("<form action=\"/").append(resource).append("/search\">")
+              .append("<input name=\"").append(resource).append("Query\">")
+              .append("<a href=\"/").append(resource).append("/archive?year=2024\">x</a></form>");
+        }
+        return sb.append("</body></html>").toString();
+    }
+
+    /**
+     * A minified-looking bundle of roughly the given size, with routes and
+     * request calls spread through filler code.
+     */
+    static String script(int size) {
+        StringBuilder sb = new StringBuilder(size + 256);
+        int i = 0;
+        while (sb.length() < size) {
+            String resource = RESOURCES[i % RESOURCES.length];
+            sb.append("var a").append(i).append("=function(e,t){return e.map(function(n){return n*t+")
+              .append(i).append("})};");
+            if (i % 8 == 0) {
+                sb.append("fetch(\"/api/").append(resource).append("/").append(i).append("?expand=owner\");")
+                  .append("const r").append(i).append("={\"").append(resource).append("Id\":e,'limit':10};");
+            }
+            i++;
+        }
+        return sb.toString();
+    }
+}
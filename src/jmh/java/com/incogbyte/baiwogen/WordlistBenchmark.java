@@ -0,0 +1,84 @@
+package com.incogbyte.baiwogen;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The result side of a generation: parsing AI output, expanding seeds
+ * locally, and pushing the lists into the tab's list models.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WordlistBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int entries;
+
+    private String aiOutput;
+    private String truncatedOutput;
+    private WordlistResult result;
+    private List<String> expandedPaths;
+    private final MutationEngine engine = new MutationEngine(3);
+    private final WordListModel model = new WordListModel();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        aiOutput = SyntheticSitemap.aiOutput(entries);
+        truncatedOutput = aiOutput.substring(0, aiOutput.length() * 2 / 3);
+        result = WordlistResult.parse(aiOutput);
+        expandedPaths = drain(engine.expandPaths(result.paths()));
+    }
+
+    @Benchmark
+    public WordlistResult parse() {
+        return WordlistResult.parse(aiOutput);
+    }
+
+    @Benchmark
+    public WordlistResult parseTruncated() {
+        return WordlistResult.parse(truncatedOutput);
+    }
+
+    @Benchmark
+    public List<String> expandFiles() {
+        return drain(engine.expandFiles(result.files(), List.of(".php", ".aspx")));
+    }
+
+    @Benchmark
+    public List<String> expandPaths() {
+        return drain(engine.expandPaths(result.paths()));
+    }
+
+    @Benchmark
+    public int setItems() {
+        model.setFilter("");
+        model.setItems(expandedPaths);
+        return model.getSize();
+    }
+
+    @Benchmark
+    public int filter() {
+        model.setItems(expandedPaths);
+        model.setFilter("settings1");
+        return model.getSize();
+    }
+
+    private static List<String> drain(Iterator<String> words) {
+        List<String> out = new ArrayList<>();
+        words.forEachRemaining(out::add);
+        return out;
+    }
+}
@@ -1,47 +1,18 @@
 package com.incogbyte.baiwogen;
 
-import burp.api.montoya.ai.chat.Message;
-import burp.api.montoya.ai.chat.Prompt;
-import burp.api.montoya.ai.chat.PromptException;
-import burp.api.montoya.ai.chat.PromptOptions;
-import burp.api.montoya.ai.chat.PromptResponse;
-import burp.api.montoya.logging.Logging;
-import com.incogbyte.baiwogen.Extension;
-import com.incogbyte.baiwogen.AIConversationManager;    
-
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
- * Manages multi-turn conversations with the Burp AI.
+ * Manages multi-turn conversations with the AI backend.
  */
 public class AIConversationManager {
-    private final List<Message> conversationContext;
-    private final Prompt prompt;
-    private final Logging logging;
-    private boolean isInitialized;
-
-    /**
-     * Creates a new AIConversationManager.
-     *
-     * @param prompt  The Burp AI prompt instance
-     * @param logging The logging instance for error reporting
-     */
-    public AIConversationManager(Prompt prompt, Logging logging) {
-        this.prompt = prompt;
-        this.logging = logging;
-        this.conversationContext = new ArrayList<>();
-        this.isInitialized = false;
-    }
-
-    /**
-     * Initializes the conversation with a system message defining the AI's role.
-     */
-    public void initializeContext() {
-        if (!isInitialized) {
-            conversationContext.clear();
-
-            String systemPrompt = """
+    private static final String SYSTEM_PROMPT = """
                         You are a expert security analyst and your job is to generate a wordlist for security testing based on a full HTTP request (request line + headers + body if present) sent to you, perform the following analysis:
 
                         1. Analyze the naming convention pattern used in the application (kebab-case, camelCase, etc.)
@@ -98,13 +69,80 @@ public class AIConversationManager {
 
                         Prioritize the quality of suggestions over quantity, focusing on paths that would have a higher probability of existing and greater security impact if discovered. DONT FORGET THE OUTPUT ONLY A SINGLE JSON OBJECT WITH KEYS fileVariations, pathVariations, paramVariations.
 """;
-    
 
-            conversationContext.add(Message.systemMessage(systemPrompt));
+    /**
+     * Appended to the system prompt when mechanical variants are generated
+     * locally by {@link MutationEngine}, so the model only spends output on
+     * semantically distinct words.
+     */
+    private static final String SEEDS_ONLY_INSTRUCTION = """
+
+                        IMPORTANT: Mechanical variants are generated automatically after your answer. Do NOT output case-style rewrites of the same word (kebab-case, camelCase, snake_case, PascalCase), backup or temporary suffixes (.bak, .old, ~, .orig), version-numbered copies (v1, v2, ...) or the same file name with a different extension. Output each semantically distinct word once, in the naming convention the application uses.
+""";
+
+    private static final int PAYLOAD_BUDGET = 10000;
+    private static final int CONTEXT_TOKEN_BUDGET = 8000;
+    private static final int KEEP_RECENT_TURNS = 4;
+    private static final double TEMPERATURE = 0.3;
+    private static final String OPTIONS_KEY = "temperature=" + TEMPERATURE;
+    /** A batch may end early at a content-defined boundary once it is at least this full. */
+    private static final int MIN_BATCH_FILL = PAYLOAD_BUDGET / 2;
+    private static final int BOUNDARY_MASK = 0x7;
+    private static final String USER_PROMPT_HEADER =
+        "Generate a wordlist for security testing based on the following content from a web application:\n\n";
+    private static final String DELTA_PROMPT_HEADER =
+        "The following endpoints of the same application were just observed in live traffic. "
+        + "Return only entries that are not already in your earlier answers, in the same JSON format:\n\n";
+
+    private final ConversationContext conversationContext;
+    private final AiBackend backend;
+    private final LogSink logging;
+    private final WordlistCache cache;
+    private final PipelineMetrics metrics;
+    private boolean isInitialized;
+    private volatile boolean seedsOnly;
+
+    /**
+     * Creates a new AIConversationManager.
+     *
+     * @param backend The backend prompts are sent to
+     * @param logging The logging instance for error reporting
+     * @param cache   The cache consulted before prompting
+     * @param metrics The metrics that prompts, cache lookups and parsing are recorded in
+     */
+    public AIConversationManager(AiBackend backend, LogSink logging, WordlistCache cache, PipelineMetrics metrics) {
+        this.backend = backend;
+        this.logging = logging;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.conversationContext = new ConversationContext(CONTEXT_TOKEN_BUDGET, KEEP_RECENT_TURNS);
+        this.isInitialized = false;
+    }
+
+    /**
+     * Initializes the conversation with a system message defining the AI's role.
+     */
+    public void initializeContext() {
+        if (!isInitialized) {
+            conversationContext.clear();
+
+            conversationContext.add(ConversationContext.Role.SYSTEM, systemPrompt());
+
             isInitialized = true;
         }
     }
 
+    /**
+     * Sets whether the model should only return semantic seed words, leaving
+     * mechanical variants to local expansion. Takes effect for new
+     * conversations and batches; an existing context keeps its system prompt.
+     *
+     * @param seedsOnly true to ask for seed words only
+     */
+    public void setSeedsOnly(boolean seedsOnly) {
+        this.seedsOnly = seedsOnly;
+    }
+
     /**
      * Clears the conversation context and resets the initialized state.
      */
@@ -114,7 +152,9 @@ public class AIConversationManager {
     }
 
     /**
-     * Starts a new conversation with the first user query.
+     * Starts a new conversation with the first user query. If the same payloads
+     * were sent before, the cached response is recorded and returned instead.
+     * Only complete responses are cached, so a truncated or failed one is retried.
      *
      * @param content The content to be analyzed
      * @return The AI's response as a string
@@ -124,22 +164,169 @@ public class AIConversationManager {
         
         // Create the user message with the content
         StringBuilder userPrompt = new StringBuilder();
-        userPrompt.append("Generate a wordlist for security testing based on the following content from a web application:\n\n");
+        userPrompt.append(USER_PROMPT_HEADER);
         
         // Add limited content to avoid overwhelming the AI
+        List<String> included = new ArrayList<>();
         int totalLength = 0;
         for (String text : content) {
-            if (totalLength + text.length() > 10000) {
+            if (totalLength + text.length() > PAYLOAD_BUDGET) {
                 break;
             }
             userPrompt.append(text).append("\n---\n");
+            included.add(text);
             totalLength += text.length();
         }
         
        
-        conversationContext.add(Message.userMessage(userPrompt.toString()));
-        
-       
+        conversationContext.add(ConversationContext.Role.USER, userPrompt.toString());
+        metrics.add(PipelineMetrics.Counter.BUDGET_DROPPED, content.size() - included.size());
+
+        String cacheKey = WordlistCache.key(systemPrompt(), OPTIONS_KEY, included);
+        String cached = cache.get(cacheKey);
+        metrics.add(cached != null ? PipelineMetrics.Counter.CACHE_HITS : PipelineMetrics.Counter.CACHE_MISSES, 1);
+        if (cached != null) {
+            logging.logToOutput("Serving wordlist from cache (" + included.size() + " payloads)");
+            conversationContext.add(ConversationContext.Role.ASSISTANT, cached);
+            return cached;
+        }
+
+        String response = sendPrompt();
+        try {
+            WordlistResult parsed = metrics.time(PipelineMetrics.Stage.PARSE, () -> WordlistResult.parse(response));
+            if (parsed.isComplete()) {
+                cache.put(cacheKey, response);
+            }
+        } catch (IllegalArgumentException e) {
+            // Errors and unreadable output are left to the caller and never cached.
+        }
+        return response;
+    }
+
+    /**
+     * Starts a new conversation covering all of the content, by splitting it into
+     * batches that each fit the payload budget and prompting for them concurrently.
+     * Each batch is sent as an independent prompt with only the system message;
+     * the per-batch wordlists are then merged and de-duplicated, and the merged
+     * result is recorded in the conversation so that later refinements see it.
+     * <p>
+     * Batches are cut at content-defined boundaries over the sorted payloads, so
+     * adding endpoints to a sitemap only changes the batches they fall into and
+     * the remaining batches are served from the cache.
+     *
+     * @param content     The content to be analyzed
+     * @param parallelism The maximum number of batches in flight at once
+     * @return The merged wordlist JSON, or an error message if every batch failed
+     */
+    public String startBatchedConversation(List<String> content, int parallelism) {
+        initializeContext();
+
+        List<List<String>> batches = splitIntoBatches(content);
+        if (batches.isEmpty()) {
+            return "Error generating wordlist: no content to send";
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, batches.size())));
+        WordlistResult merged = new WordlistResult();
+        String firstError = null;
+        int failed = 0;
+        int cachedBatches = 0;
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            List<String> pendingKeys = new ArrayList<>();
+            for (List<String> batch : batches) {
+                String cacheKey = WordlistCache.key(systemPrompt(), OPTIONS_KEY, batch);
+                String cached = cache.get(cacheKey);
+                if (cached != null) {
+                    cachedBatches++;
+                    futures.add(CompletableFuture.completedFuture(cached));
+                    pendingKeys.add(null);
+                } else {
+                    futures.add(executor.submit(() -> executeStateless(String.join("", batch))));
+                    pendingKeys.add(cacheKey);
+                }
+            }
+            metrics.add(PipelineMetrics.Counter.CACHE_HITS, cachedBatches);
+            metrics.add(PipelineMetrics.Counter.CACHE_MISSES, batches.size() - cachedBatches);
+            logging.logToOutput("Sending " + (batches.size() - cachedBatches) + " of " + batches.size()
+                + " batches to AI, " + parallelism + " at a time; the rest are cached");
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    String response = futures.get(i).get();
+                    WordlistResult parsed = metrics.time(PipelineMetrics.Stage.PARSE, () -> WordlistResult.parse(response));
+                    merged.merge(parsed);
+                    if (!parsed.isComplete()) {
+                        logging.logToError("Batch " + (i + 1) + " was incomplete (" + parsed.problem()
+                            + "); salvaged " + parsed.size() + " entries");
+                    } else if (pendingKeys.get(i) != null) {
+                        cache.put(pendingKeys.get(i), response);
+                    }
+                } catch (ExecutionException e) {
+                    failed++;
+                    String error = e.getCause() instanceof AiBackendException
+                        ? promptErrorMessage((AiBackendException) e.getCause())
+                        : "Error generating wordlist: " + e.getCause().getMessage();
+                    logging.logToError("Batch failed: " + e.getCause().getMessage());
+                    if (firstError == null) {
+                        firstError = error;
+                    }
+                } catch (RuntimeException e) {
+                    failed++;
+                    logging.logToError("Could not parse batch response: " + e.getMessage());
+                    if (firstError == null) {
+                        firstError = "Error parsing AI output: " + e.getMessage();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Error generating wordlist: interrupted";
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (failed == batches.size()) {
+            return firstError;
+        }
+        logging.logToOutput("Merged " + (batches.size() - failed) + "/" + batches.size()
+            + " batches into " + merged.size() + " entries");
+
+        String mergedJson = merged.toJson();
+        conversationContext.add(ConversationContext.Role.USER, USER_PROMPT_HEADER + "(" + content.size()
+            + " endpoints were analyzed in " + batches.size() + " separate batches; the merged result follows.)");
+        conversationContext.add(ConversationContext.Role.ASSISTANT, mergedJson);
+        return mergedJson;
+    }
+
+    /**
+     * Continues the conversation with endpoints that were not sent before, asking
+     * only for entries the earlier answers do not contain yet. Starts a new
+     * conversation if there is none, so the first delta works like a normal
+     * generation.
+     *
+     * @param content The new endpoints
+     * @return The AI's response as a string
+     */
+    public String extendConversation(List<String> content) {
+        initializeContext();
+
+        StringBuilder userPrompt = new StringBuilder(DELTA_PROMPT_HEADER);
+        int totalLength = 0;
+        int included = 0;
+        for (String text : content) {
+            if (totalLength + text.length() > PAYLOAD_BUDGET) {
+                break;
+            }
+            userPrompt.append(text).append("\n---\n");
+            totalLength += text.length();
+            included++;
+        }
+        metrics.add(PipelineMetrics.Counter.BUDGET_DROPPED, content.size() - included);
+        if (included < content.size()) {
+            logging.logToOutput("Delta prompt truncated to " + included + " of " + content.size() + " endpoints");
+        }
+
+        conversationContext.add(ConversationContext.Role.USER, userPrompt.toString());
         return sendPrompt();
     }
 
@@ -153,7 +340,7 @@ public class AIConversationManager {
         initializeContext();
         
        
-        conversationContext.add(Message.userMessage(userQuery));
+        conversationContext.add(ConversationContext.Role.USER, userQuery);
         
        
         return sendPrompt();
@@ -167,40 +354,97 @@ public class AIConversationManager {
      */
     private String sendPrompt() {
         try {
-            logging.logToOutput("Sending prompt to AI with context size: " + conversationContext.size());
+            logging.logToOutput("Sending prompt to AI with context size: " + conversationContext.size()
+                + " (~" + conversationContext.estimatedTokens() + " tokens)");
             
        
-            PromptOptions options = PromptOptions.promptOptions()
-                .withTemperature(0.3);
-            
             // Execute the prompt with the full context
-            PromptResponse response = prompt.execute(
-                options, 
-                conversationContext.toArray(new Message[0])
-            );
+            metrics.recordPromptSize(conversationContext.totalChars());
+            String responseContent = metrics.time(PipelineMetrics.Stage.PROMPT, () -> backend.execute(
+                TEMPERATURE,
+                conversationContext.toMessages()
+            ));
             
             // Store AI response as an assistant message
-            String responseContent = response.content();
-            Message assistantMessage = Message.assistantMessage(responseContent);
-            conversationContext.add(assistantMessage);
+            conversationContext.add(ConversationContext.Role.ASSISTANT, responseContent);
             
             return responseContent;
             
-        } catch (PromptException e) {
+        } catch (AiBackendException e) {
             // Log the exception specifically for AI prompt errors
             logging.logToError("AI Prompt Error: " + e.getMessage());
-            return "Error generating wordlist with AI: " + e.getMessage() + 
-                   "\n\nPossible reasons: " +
-                   "\n- AI service communication issue" +
-                   "\n- Insufficient AI credits" +
-                   "\n- Invalid prompt format" +
-                   "\n\nPlease try again later or contact support.";
+            return promptErrorMessage(e);
         } catch (Exception e) {
             logging.logToError("Error using AI: " + e.getMessage());
             return "Error generating wordlist: " + e.getMessage();
         }
     }
 
+    /**
+     * Sends a single batch with only the system message, leaving the
+     * conversation context untouched.
+     */
+    private String executeStateless(String batch) {
+        String system = systemPrompt();
+        metrics.recordPromptSize(system.length() + USER_PROMPT_HEADER.length() + batch.length());
+        return metrics.time(PipelineMetrics.Stage.PROMPT, () -> backend.execute(
+            TEMPERATURE,
+            List.of(new AiBackend.Message(ConversationContext.Role.SYSTEM, system),
+                    new AiBackend.Message(ConversationContext.Role.USER, USER_PROMPT_HEADER + batch))
+        ));
+    }
+
+    /**
+     * Groups the sorted payloads into batches of at most {@link #PAYLOAD_BUDGET}
+     * characters, each payload followed by a separator. A batch is also closed
+     * after a payload whose hash hits {@link #BOUNDARY_MASK} once it is at least
+     * {@link #MIN_BATCH_FILL} full, which keeps boundaries stable when payloads
+     * are added or removed elsewhere. A payload larger than the budget is
+     * truncated into a batch of its own.
+     */
+    private static List<List<String>> splitIntoBatches(List<String> content) {
+        List<String> sorted = new ArrayList<>(content);
+        sorted.sort(null);
+
+        List<List<String>> batches = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int currentLength = 0;
+        for (String text : sorted) {
+            if (text.length() > PAYLOAD_BUDGET) {
+                text = text.substring(0, PAYLOAD_BUDGET);
+            }
+            if (currentLength > 0 && currentLength + text.length() > PAYLOAD_BUDGET) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentLength = 0;
+            }
+            current.add(text + "\n---\n");
+            currentLength += text.length();
+            if (currentLength >= MIN_BATCH_FILL && (text.hashCode() & BOUNDARY_MASK) == 0) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentLength = 0;
+            }
+        }
+        if (currentLength > 0) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    private String systemPrompt() {
+        return seedsOnly ? SYSTEM_PROMPT + SEEDS_ONLY_INSTRUCTION : SYSTEM_PROMPT;
+    }
+
+    private static String promptErrorMessage(AiBackendException e) {
+        return "Error generating wordlist with AI: " + e.getMessage() +
+               "\n\nPossible reasons: " +
+               "\n- AI service communication issue" +
+               "\n- Insufficient AI credits" +
+               "\n- Invalid prompt format" +
+               "\n\nPlease try again later or contact support.";
+    }
+
     /**
      * Returns the current size of the conversation context.
      *
@@ -209,6 +453,15 @@ public class AIConversationManager {
     public int getContextSize() {
         return conversationContext.size();
     }
+
+    /**
+     * Returns the estimated token size of the conversation context.
+     *
+     * @return The estimated number of tokens
+     */
+    public int getContextTokens() {
+        return conversationContext.estimatedTokens();
+    }
     
     /**
      * Checks if the conversation has been initialized.
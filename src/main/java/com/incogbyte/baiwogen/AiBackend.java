@@ -0,0 +1,59 @@
+package com.incogbyte.baiwogen;
+
+import java.util.List;
+
+/**
+ * A model that answers a conversation with text.
+ * <p>
+ * {@link MontoyaAiBackend} talks to the Burp AI and is the default;
+ * {@link LocalAiBackend} answers deterministically without any service, for
+ * offline testing. {@link AiScheduler} wraps either one to coalesce, limit
+ * and retry prompts. Implementations must be safe to call from several
+ * threads at once.
+ */
+public interface AiBackend {
+
+    /**
+     * Sends a conversation and returns the answer.
+     *
+     * @param temperature The sampling temperature
+     * @param messages    The conversation, oldest message first
+     * @return The content of the answer
+     * @throws AiBackendException if the backend could not answer
+     */
+    String execute(double temperature, List<Message> messages);
+
+    /**
+     * Returns a short name for log messages.
+     *
+     * @return The name
+     */
+    String name();
+
+    /**
+     * One message of a conversation, independent of any backend's own types.
+     */
+    final class Message {
+        private final ConversationContext.Role role;
+        private final String content;
+
+        /**
+         * Creates a new Message.
+         *
+         * @param role    The author of the message
+         * @param content The message text
+         */
+        public Message(ConversationContext.Role role, String content) {
+            this.role = role;
+            this.content = content;
+        }
+
+        public ConversationContext.Role role() {
+            return role;
+        }
+
+        public String content() {
+            return content;
+        }
+    }
+}
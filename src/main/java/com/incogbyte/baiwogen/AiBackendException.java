@@ -0,0 +1,28 @@
+package com.incogbyte.baiwogen;
+
+/**
+ * Thrown when an {@link AiBackend} could not answer. A retryable failure,
+ * such as an exhausted rate limit or an overloaded service, may succeed when
+ * the same prompt is sent again later.
+ */
+public class AiBackendException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final boolean retryable;
+
+    /**
+     * Creates a new AiBackendException.
+     *
+     * @param message   The reason reported by the backend
+     * @param retryable Whether sending the prompt again later may succeed
+     * @param cause     The backend's own exception, or null
+     */
+    public AiBackendException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,159 @@
+package com.incogbyte.baiwogen;
+
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sits in front of an {@link AiBackend} and decides when prompts are sent.
+ * <p>
+ * Identical prompts that are in flight at the same time are sent once and
+ * share the answer. At most a fixed number of prompts run at once, admitted
+ * in arrival order, so a queue of generations drains at a steady rate instead
+ * of flooding the backend. When the backend reports a retryable failure,
+ * such as a rate limit or an overloaded service, every caller pauses for an
+ * exponentially growing, jittered delay before the prompt is tried again.
+ */
+public class AiScheduler implements AiBackend {
+    private final AiBackend backend;
+    private final LogSink logging;
+    private final Semaphore permits;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    /** Shared pause after a retryable failure; no prompt is started before this time. */
+    private final AtomicLong pausedUntil = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    /**
+     * Creates a new AiScheduler.
+     *
+     * @param backend           The backend prompts are sent to
+     * @param logging           The logging instance for retry notices
+     * @param maxConcurrent     The maximum number of prompts in flight at once
+     * @param maxAttempts       The number of times a prompt is tried before its failure is reported
+     * @param baseBackoffMillis The delay before the first retry; each further retry doubles it
+     * @param maxBackoffMillis  The upper bound of a single delay
+     */
+    public AiScheduler(AiBackend backend, LogSink logging, int maxConcurrent, int maxAttempts,
+                       long baseBackoffMillis, long maxBackoffMillis) {
+        this.backend = backend;
+        this.logging = logging;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent), true);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Override
+    public String execute(double temperature, List<Message> messages) {
+        String key = key(temperature, messages);
+        CompletableFuture<String> own = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+        try {
+            String response = executeWithRetry(temperature, messages);
+            own.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    @Override
+    public String name() {
+        return backend.name();
+    }
+
+    /**
+     * Returns the number of prompts answered by sharing an identical prompt in flight.
+     *
+     * @return The count since creation
+     */
+    public long coalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Returns the number of retries after retryable failures.
+     *
+     * @return The count since creation
+     */
+    public long retryCount() {
+        return retries.get();
+    }
+
+    private String executeWithRetry(double temperature, List<Message> messages) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                waitForPause();
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AiBackendException("Interrupted while waiting for the AI backend", false, e);
+            }
+            try {
+                return backend.execute(temperature, messages);
+            } catch (AiBackendException e) {
+                if (!e.isRetryable() || attempt >= maxAttempts) {
+                    throw e;
+                }
+                long delay = backoff(attempt);
+                pausedUntil.accumulateAndGet(System.currentTimeMillis() + delay, Math::max);
+                retries.incrementAndGet();
+                logging.logToError(backend.name() + " is unavailable (" + e.getMessage() + "); retrying in "
+                    + delay + " ms, attempt " + (attempt + 1) + " of " + maxAttempts);
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void waitForPause() throws InterruptedException {
+        long wait;
+        while ((wait = pausedUntil.get() - System.currentTimeMillis()) > 0) {
+            Thread.sleep(wait);
+        }
+    }
+
+    /** Exponential backoff with full jitter on the upper half, so paused callers do not resume in lockstep. */
+    private long backoff(int attempt) {
+        long delay = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private static String await(CompletableFuture<String> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new AiBackendException(e.getCause().getMessage(), false, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AiBackendException("Interrupted while waiting for the AI backend", false, e);
+        }
+    }
+
+    private static String key(double temperature, List<Message> messages) {
+        StringBuilder sb = new StringBuilder().append(temperature);
+        for (Message message : messages) {
+            sb.append('\0').append(message.role().ordinal()).append(message.content());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,358 @@
+package com.incogbyte.baiwogen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless entry point: generates one wordlist set per host from HAR files or
+ * Burp XML exports, without Burp or a GUI.
+ * <p>
+ * Exports are streamed, and their requests go through the same
+ * {@link PayloadExtractor} filtering and normalization as sitemap entries
+ * inside Burp. Payloads are grouped by host name, and hosts are generated
+ * concurrently through one shared {@link AiScheduler}, so the backend sees a
+ * bounded, steady load however many hosts are queued. Each host gets {@code paths.txt},
+ * {@code files.txt} and {@code params.txt} in its own output directory. With
+ * {@code --verify}, the Paths and Files entries of the matching host are
+ * first probed by {@link Prober} over the JDK HTTP client, and only live ones
+ * are written.
+ * <p>
+ * Only classes free of Montoya types are used here, so the jar runs on a
+ * plain JVM. The Burp AI is therefore not available; the backend is the local
+ * deterministic one or any {@link AiBackend} named by class.
+ */
+public final class BatchMain {
+    private static final String USAGE = """
+        Usage: java -jar baiwogen.jar [options] <export.har|export.xml>...
+
+        Options:
+          --out DIR             Output directory, one subdirectory per host (default: baiwogen-out)
+          --hosts N             Hosts generated concurrently (default: 4)
+          --batch-parallel N    Prompts in flight per host (default: 2)
+          --ai-concurrency N    Prompts in flight across all hosts (default: 8)
+          --backend NAME        "local", or the class name of an AiBackend with a
+                                no-argument constructor (default: local)
+          --no-expand           Do not generate case, backup, version and extension variants
+          --filters FILE        Filter rules replacing the defaults, in the syntax of the Filters dialog
+          --hits FILE           Words known to exist, one per line with an optional hit count, to rank by
+          --top N               Write only the N highest-ranked entries of each list (default: all)
+          --verify BASE_URL     Probe the Paths and Files entries of the host of BASE_URL against it,
+                                e.g. http://127.0.0.1:8080/app/, and write only live ones
+        """;
+    private static final int EXTRACT_CHUNK = 1024;
+    private static final int MAX_EXPANDED_ENTRIES = 250_000;
+    private static final int AI_MAX_ATTEMPTS = 4;
+    private static final long AI_BASE_BACKOFF_MILLIS = 2_000;
+    private static final long AI_MAX_BACKOFF_MILLIS = 60_000;
+    private static final int HIT_INDEX_MAX_WORDS = 200_000;
+    private static final int PROBE_MAX_CONCURRENCY = 16;
+    private static final int PROBE_BODY_BYTES = 16 * 1024;
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final LogSink log;
+    private final Path outDir;
+    private final int hostParallelism;
+    private final int batchParallelism;
+    private final boolean expand;
+    private final FilterChain filters;
+    private final WordlistRanker ranker;
+    private final int top;
+    private final URI verifyBase;
+    private final Prober prober;
+    private final AiScheduler scheduler;
+    private final WordlistCache cache = new WordlistCache(null, 1024);
+    private final PipelineMetrics metrics = new PipelineMetrics();
+    private final EndpointTemplater templater = new EndpointTemplater();
+    private final MutationEngine mutationEngine = new MutationEngine(3);
+    private final WordlistExporter exporter = new WordlistExporter();
+
+    private BatchMain(LogSink log, Path outDir, int hostParallelism, int batchParallelism, int aiConcurrency,
+                      boolean expand, FilterChain filters, HitIndex hits, int top, URI verifyBase,
+                      AiBackend backend) {
+        this.log = log;
+        this.outDir = outDir;
+        this.hostParallelism = hostParallelism;
+        this.batchParallelism = batchParallelism;
+        this.expand = expand;
+        this.filters = filters;
+        this.ranker = new WordlistRanker(hits);
+        this.top = top;
+        this.verifyBase = verifyBase;
+        this.prober = verifyBase == null ? null
+            : new Prober(new HttpClientProbeTransport(PROBE_TIMEOUT, PROBE_BODY_BYTES), PROBE_MAX_CONCURRENCY);
+        this.scheduler = new AiScheduler(backend, log, aiConcurrency, AI_MAX_ATTEMPTS,
+            AI_BASE_BACKOFF_MILLIS, AI_MAX_BACKOFF_MILLIS);
+    }
+
+    public static void main(String[] args) {
+        Path outDir = Path.of("baiwogen-out");
+        int hosts = 4;
+        int batchParallel = 2;
+        int aiConcurrency = 8;
+        String backendName = "local";
+        boolean expand = true;
+        Path filtersFile = null;
+        Path hitsFile = null;
+        int top = Integer.MAX_VALUE;
+        URI verifyBase = null;
+        List<Path> inputs = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--out" -> outDir = Path.of(args[++i]);
+                    case "--hosts" -> hosts = positive(args[++i]);
+                    case "--batch-parallel" -> batchParallel = positive(args[++i]);
+                    case "--ai-concurrency" -> aiConcurrency = positive(args[++i]);
+                    case "--backend" -> backendName = args[++i];
+                    case "--no-expand" -> expand = false;
+                    case "--filters" -> filtersFile = Path.of(args[++i]);
+                    case "--hits" -> hitsFile = Path.of(args[++i]);
+                    case "--top" -> top = positive(args[++i]);
+                    case "--verify" -> verifyBase = baseUrl(args[++i]);
+                    case "-h", "--help" -> {
+                        System.out.print(USAGE);
+                        return;
+                    }
+                    default -> {
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option " + args[i]);
+                        }
+                        inputs.add(Path.of(args[i]));
+                    }
+                }
+            }
+            if (inputs.isEmpty()) {
+                throw new IllegalArgumentException("No input files given");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e instanceof ArrayIndexOutOfBoundsException ? "Missing option value" : e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        LogSink log = new LogSink() {
+            @Override
+            public void logToOutput(String message) {
+                System.out.println(message);
+            }
+
+            @Override
+            public void logToError(String message) {
+                System.err.println(message);
+            }
+        };
+        try {
+            FilterChain filters = filtersFile == null
+                ? FilterChain.defaults()
+                : FilterChain.parse(Files.readString(filtersFile));
+            HitIndex hits = new HitIndex(HIT_INDEX_MAX_WORDS);
+            if (hitsFile != null) {
+                log.logToOutput("Imported " + hits.importList(hitsFile) + " hits from " + hitsFile);
+            }
+            BatchMain batch = new BatchMain(log, outDir, hosts, batchParallel, aiConcurrency, expand, filters,
+                hits, top, verifyBase, createBackend(backendName));
+            System.exit(batch.run(inputs) ? 0 : 1);
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            log.logToError("Batch generation failed: " + e);
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads all inputs and generates the wordlists of every host.
+     *
+     * @return true if every host succeeded
+     */
+    private boolean run(List<Path> inputs) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Map<String, List<Map<String, Object>>> byHost = readPayloads(inputs);
+        log.logToOutput("Generating wordlists for " + byHost.size() + " hosts with " + scheduler.name()
+            + ", " + hostParallelism + " at a time.");
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(hostParallelism, byHost.size())));
+        Map<String, Future<String>> results = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, List<Map<String, Object>>> host : byHost.entrySet()) {
+                results.put(host.getKey(), executor.submit(() -> generate(host.getKey(), host.getValue())));
+            }
+            int failed = 0;
+            for (Map.Entry<String, Future<String>> result : results.entrySet()) {
+                try {
+                    log.logToOutput(result.getKey() + ": " + result.getValue().get());
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.logToError(result.getKey() + ": " + e.getCause().getMessage());
+                }
+            }
+            log.logToOutput(String.format("Done: %d of %d hosts in %.1f s, output in %s. %s",
+                byHost.size() - failed, byHost.size(), (System.nanoTime() - start) / 1e9, outDir, metrics.summary()));
+            return failed == 0;
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Streams the exports through the payload extractor in chunks, so only
+     * one chunk of request bodies is held at a time.
+     */
+    private Map<String, List<Map<String, Object>>> readPayloads(List<Path> inputs) throws IOException {
+        PayloadExtractor extractor = new PayloadExtractor(log, Runtime.getRuntime().availableProcessors());
+        extractor.setFilters(filters);
+        Map<String, List<Map<String, Object>>> byHost = new LinkedHashMap<>();
+        try {
+            for (Path input : inputs) {
+                List<RequestSample> chunk = new ArrayList<>(EXTRACT_CHUNK);
+                long read = TrafficExportReader.read(input, sample -> {
+                    chunk.add(sample);
+                    if (chunk.size() == EXTRACT_CHUNK) {
+                        group(extractor, chunk, byHost);
+                        chunk.clear();
+                    }
+                });
+                group(extractor, chunk, byHost);
+                log.logToOutput("Read " + read + " requests from " + input);
+            }
+            log.logToOutput("Filter rules:\n" + filters.countsSummary().stripTrailing());
+        } finally {
+            extractor.shutdown();
+        }
+        return byHost;
+    }
+
+    private void group(PayloadExtractor extractor, List<RequestSample> chunk,
+                       Map<String, List<Map<String, Object>>> byHost) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> payloads = metrics.time(PipelineMetrics.Stage.EXTRACT, () -> extractor.extractAll(chunk));
+        metrics.add(PipelineMetrics.Counter.ITEMS_SCANNED, chunk.size());
+        metrics.add(PipelineMetrics.Counter.ITEMS_FILTERED, chunk.size() - payloads.size());
+        for (Map<String, Object> payload : payloads) {
+            byHost.computeIfAbsent((String) payload.get("host"), k -> new ArrayList<>()).add(payload);
+        }
+    }
+
+    /**
+     * Generates and writes the wordlists of one host.
+     *
+     * @return A one-line summary
+     */
+    private String generate(String host, List<Map<String, Object>> payloads) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        List<String> sitemapPaths = new ArrayList<>(payloads.size());
+        for (Map<String, Object> payload : payloads) {
+            sitemapPaths.add((String) payload.get("path"));
+        }
+        List<String> templates = metrics.time(PipelineMetrics.Stage.TEMPLATE, () -> templater.collapse(payloads));
+
+        AIConversationManager conversation = new AIConversationManager(scheduler, log, cache, metrics);
+        conversation.setSeedsOnly(expand);
+        String output = conversation.startBatchedConversation(templates, batchParallelism);
+        if (output.startsWith("Error")) {
+            throw new IOException(output.lines().findFirst().orElse(output));
+        }
+        WordlistResult result = metrics.time(PipelineMetrics.Stage.PARSE, () -> WordlistResult.parse(output));
+
+        List<String> paths = result.paths();
+        List<String> files = result.files();
+        List<String> params = result.params();
+        if (expand) {
+            paths = take(mutationEngine.expandPaths(paths));
+            files = take(mutationEngine.expandFiles(files, MutationEngine.detectExtensions(sitemapPaths, 3)));
+            params = take(mutationEngine.expandParams(params));
+        }
+        Map<String, Integer> sitemapCounts = WordlistRanker.sitemapCounts(payloads);
+        paths = rank(paths, result.paths(), sitemapCounts);
+        files = rank(files, result.files(), sitemapCounts);
+        params = rank(params, result.params(), sitemapCounts);
+
+        String verified = "";
+        if (prober != null && host != null && host.equalsIgnoreCase(verifyBase.getHost())) {
+            Map<String, List<String>> candidates = new LinkedHashMap<>();
+            candidates.put("Paths", paths);
+            candidates.put("Files", files);
+            String origin = verifyBase.getScheme() + "://" + verifyBase.getRawAuthority();
+            String basePath = verifyBase.getRawPath();
+            if (basePath == null || basePath.isEmpty()) {
+                basePath = "/";
+            }
+            Prober.Report report = prober.probe(origin, basePath, candidates, (done, total, concurrency) -> { });
+            paths = new ArrayList<>(report.kept("Paths").keySet());
+            files = new ArrayList<>(report.kept("Files").keySet());
+            verified = "; verified against " + origin + ": " + report.summary();
+        }
+
+        Path dir = outDir.resolve(directoryName(host));
+        Files.createDirectories(dir);
+        exporter.export(dir.resolve("paths.txt"), false, WordlistExporter.Profile.RAW, paths, paths, files);
+        exporter.export(dir.resolve("files.txt"), false, WordlistExporter.Profile.RAW, files, paths, files);
+        exporter.export(dir.resolve("params.txt"), false, WordlistExporter.Profile.RAW, params, paths, files);
+        return String.format("%d requests, %d templates -> %d paths, %d files, %d params in %d ms%s%s",
+            payloads.size(), templates.size(), paths.size(), files.size(), params.size(),
+            (System.nanoTime() - start) / 1_000_000, result.isComplete() ? "" : " (salvaged from incomplete output)",
+            verified);
+    }
+
+    /** Ranks entries, most likely first, and keeps the top ones. */
+    private List<String> rank(List<String> entries, List<String> aiSection, Map<String, Integer> sitemapCounts) {
+        List<String> ranked = metrics.time(PipelineMetrics.Stage.RANK, () -> ranker.rank(entries, aiSection, sitemapCounts));
+        return ranked.size() > top ? ranked.subList(0, top) : ranked;
+    }
+
+    private static AiBackend createBackend(String name) throws ReflectiveOperationException {
+        if (name.equalsIgnoreCase("local")) {
+            return new LocalAiBackend();
+        }
+        return Class.forName(name).asSubclass(AiBackend.class).getDeclaredConstructor().newInstance();
+    }
+
+    /** Makes a host name safe as a directory name. */
+    static String directoryName(String host) {
+        return host == null ? "_unknown" : host.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static List<String> take(Iterator<String> words) {
+        Set<String> out = new LinkedHashSet<>();
+        while (words.hasNext() && out.size() < MAX_EXPANDED_ENTRIES) {
+            out.add(words.next());
+        }
+        return new ArrayList<>(out);
+    }
+
+    private static URI baseUrl(String value) {
+        URI uri = URI.create(value);
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new IllegalArgumentException("Expected an absolute base URL, got " + value);
+        }
+        return uri;
+    }
+
+    private static int positive(String value) {
+        int n = Integer.parseInt(value);
+        if (n < 1) {
+            throw new IllegalArgumentException("Expected a positive number, got " + value);
+        }
+        return n;
+    }
+}
@@ -0,0 +1,223 @@
+package com.incogbyte.baiwogen;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Describes a request body by its shape instead of its content.
+ * <p>
+ * Only a bounded prefix of the body is ever inspected. JSON bodies become a
+ * list of key paths ({@code user.address.city}, {@code items[].id}) read with
+ * a streaming {@link JsonReader}, form and multipart bodies become a list of
+ * field names, and binary bodies are dropped. Only other text bodies are
+ * passed on verbatim, truncated. This gives the AI the schema of a request
+ * for a fraction of the bytes and tokens of its values.
+ */
+public final class BodySampler {
+    private static final int MAX_KEYS = 100;
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_TEXT_CHARS = 2000;
+    private static final String[] BINARY_TYPES = {
+        "image/", "audio/", "video/", "font/", "application/octet-stream", "application/zip",
+        "application/gzip", "application/pdf", "application/x-protobuf", "application/grpc",
+        "application/x-amf", "application/vnd.ms-", "application/msword"
+    };
+
+    private BodySampler() {
+    }
+
+    /**
+     * Returns whether a content type denotes a binary body.
+     *
+     * @param contentType The Content-Type header value, or an empty string
+     * @return true if the body should not be inspected at all
+     */
+    public static boolean isBinary(String contentType) {
+        String type = contentType.toLowerCase(Locale.ROOT);
+        for (String binary : BINARY_TYPES) {
+            if (type.startsWith(binary)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the description of a body prefix to a payload object, under
+     * {@code jsonKeys}, {@code bodyFields} or {@code body}.
+     *
+     * @param contentType The Content-Type header value, or an empty string
+     * @param prefix      The first bytes of the body
+     * @param out         The payload object to add to
+     */
+    public static void sample(String contentType, byte[] prefix, Map<String, Object> out) {
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("application/x-www-form-urlencoded")) {
+            out.put("bodyFields", formFields(new String(prefix, StandardCharsets.ISO_8859_1)));
+        } else if (type.startsWith("multipart/")) {
+            out.put("bodyFields", multipartFields(prefix));
+        } else if (type.contains("json") || (type.isEmpty() && startsLikeJson(prefix))) {
+            List<String> keys = jsonKeys(prefix);
+            if (!keys.isEmpty()) {
+                out.put("jsonKeys", keys);
+            } else {
+                putText(prefix, out);
+            }
+        } else {
+            putText(prefix, out);
+        }
+    }
+
+    /**
+     * Returns the key paths of a JSON document, stopping quietly at the end of
+     * a truncated prefix or at the first syntax error.
+     *
+     * @param prefix The first bytes of the document
+     * @return The distinct key paths, in document order
+     */
+    static List<String> jsonKeys(byte[] prefix) {
+        Set<String> keys = new LinkedHashSet<>();
+        // Paths of the open containers; an array's path ends in "[]".
+        Deque<String> containers = new ArrayDeque<>();
+        String key = null;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(
+                new ByteArrayInputStream(prefix), StandardCharsets.UTF_8))) {
+            reader.setLenient(true);
+            while (keys.size() < MAX_KEYS) {
+                JsonToken token = reader.peek();
+                // A value's path is its key inside an object, or the array's path inside an array.
+                String valuePath = key != null ? key : containers.isEmpty() ? "" : containers.peek();
+                key = null;
+                switch (token) {
+                    case BEGIN_OBJECT -> {
+                        reader.beginObject();
+                        containers.push(valuePath);
+                    }
+                    case BEGIN_ARRAY -> {
+                        reader.beginArray();
+                        containers.push(valuePath + "[]");
+                    }
+                    case END_OBJECT -> {
+                        reader.endObject();
+                        containers.pop();
+                    }
+                    case END_ARRAY -> {
+                        reader.endArray();
+                        containers.pop();
+                    }
+                    case NAME -> {
+                        String parent = containers.peek();
+                        key = parent.isEmpty() ? reader.nextName() : parent + "." + reader.nextName();
+                        keys.add(key);
+                        if (containers.size() >= MAX_DEPTH) {
+                            reader.skipValue();
+                            key = null;
+                        }
+                    }
+                    case END_DOCUMENT -> {
+                        return new ArrayList<>(keys);
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+        } catch (IOException | IllegalStateException | NoSuchElementException e) {
+            // Truncated or malformed: keep what was read so far.
+        }
+        return new ArrayList<>(keys);
+    }
+
+    static List<String> formFields(String body) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            if (!name.isEmpty() && names.size() < MAX_KEYS) {
+                names.add(name);
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /** Field names from the {@code Content-Disposition} headers of the parts, file parts marked as such. */
+    static List<String> multipartFields(byte[] prefix) {
+        Set<String> names = new LinkedHashSet<>();
+        String text = new String(prefix, StandardCharsets.ISO_8859_1);
+        int from = 0;
+        while (names.size() < MAX_KEYS) {
+            int header = indexOfIgnoreCase(text, "content-disposition:", from);
+            if (header < 0) {
+                break;
+            }
+            int lineEnd = text.indexOf('\n', header);
+            String line = text.substring(header, lineEnd < 0 ? text.length() : lineEnd);
+            String name = attribute(line, "name");
+            if (name != null) {
+                names.add(attribute(line, "filename") != null ? name + " (file)" : name);
+            }
+            from = header + line.length();
+        }
+        return new ArrayList<>(names);
+    }
+
+    private static String attribute(String line, String attribute) {
+        int at = 0;
+        while ((at = indexOfIgnoreCase(line, attribute + "=\"", at)) >= 0) {
+            // Skip "filename=" when looking for "name=".
+            if (at == 0 || !Character.isLetter(line.charAt(at - 1))) {
+                int start = at + attribute.length() + 2;
+                int end = line.indexOf('"', start);
+                return end < 0 ? null : line.substring(start, end);
+            }
+            at++;
+        }
+        return null;
+    }
+
+    private static int indexOfIgnoreCase(String text, String needle, int from) {
+        for (int i = from; i <= text.length() - needle.length(); i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsLikeJson(byte[] prefix) {
+        for (byte b : prefix) {
+            if (b == '{' || b == '[') {
+                return true;
+            }
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static void putText(byte[] prefix, Map<String, Object> out) {
+        int end = Math.min(prefix.length, 512);
+        for (int i = 0; i < end; i++) {
+            if (prefix[i] == 0) {
+                return;
+            }
+        }
+        String text = new String(prefix, StandardCharsets.UTF_8);
+        if (!text.isBlank()) {
+            out.put("body", text.length() > MAX_TEXT_CHARS ? text.substring(0, MAX_TEXT_CHARS) : text);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.incogbyte.baiwogen;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An insertion-ordered set of words stored as UTF-8 in an off-heap arena.
+ * <p>
+ * Each word costs its encoded bytes plus a length prefix in direct memory and
+ * three ints on the heap (offset, run id and a hash-table slot), instead of a
+ * {@code String} object per word. Membership is checked against a Bloom
+ * filter first, so most misses never touch the arena, and then confirmed
+ * through an open-addressing table. Every word records the run in which it
+ * was first added, which is what makes "new since last run" diffs cheap.
+ * <p>
+ * Not thread-safe; {@link WordStore} guards access.
+ */
+class CompactWordSet implements Iterable<String> {
+    private static final int BLOOM_HASHES = 3;
+
+    private ByteBuffer arena = ByteBuffer.allocateDirect(1 << 16);
+    private int[] offsets = new int[1024];
+    private int[] runs = new int[1024];
+    private int[] table = new int[2048];
+    private long[] bloom = new long[table.length / 8];
+    private int size;
+
+    /**
+     * Adds a word if it is not present yet.
+     *
+     * @param word The word
+     * @param run  The run id recorded for a new word
+     * @return true if the word was added
+     */
+    boolean add(String word, int run) {
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(bytes, 0, bytes.length);
+        if (mightContain(hash) && find(bytes, hash) >= 0) {
+            return false;
+        }
+
+        ensureArena(bytes.length + 5);
+        int offset = arena.position();
+        writeVarInt(bytes.length);
+        arena.put(bytes);
+
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            runs = Arrays.copyOf(runs, size * 2);
+        }
+        offsets[size] = offset;
+        runs[size] = run;
+        insert(size, hash);
+        size++;
+
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    boolean contains(String word) {
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(bytes, 0, bytes.length);
+        return mightContain(hash) && find(bytes, hash) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String get(int index) {
+        int pos = offsets[index];
+        int len = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena.get(pos++);
+            len |= (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        byte[] bytes = new byte[len];
+        arena.get(pos, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    int runOf(int index) {
+        return runs[index];
+    }
+
+    /**
+     * Returns the number of bytes held off-heap.
+     *
+     * @return The arena size in bytes
+     */
+    long offHeapBytes() {
+        return arena.position();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public String next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+
+    private int find(byte[] bytes, long hash) {
+        int mask = table.length - 1;
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (equalsAt(entry - 1, bytes)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private boolean equalsAt(int index, byte[] bytes) {
+        int pos = offsets[index];
+        int len = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena.get(pos++);
+            len |= (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        if (len != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (arena.get(pos + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void insert(int index, long hash) {
+        int mask = table.length - 1;
+        int slot = (int) hash & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+
+        int bits = bloom.length * 64;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private boolean mightContain(long hash) {
+        int bits = bloom.length * 64;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        bloom = new long[capacity / 8];
+        for (int i = 0; i < size; i++) {
+            byte[] bytes = get(i).getBytes(StandardCharsets.UTF_8);
+            insert(i, hash(bytes, 0, bytes.length));
+        }
+    }
+
+    private void ensureArena(int extra) {
+        if (arena.remaining() >= extra) {
+            return;
+        }
+        int capacity = arena.capacity();
+        while (capacity - arena.position() < extra) {
+            capacity *= 2;
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        arena.flip();
+        grown.put(arena);
+        arena = grown;
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7f) != 0) {
+            arena.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        arena.put((byte) value);
+    }
+
+    /** 64-bit FNV-1a with a final avalanche step. */
+    private static long hash(byte[] bytes, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= bytes[i];
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,176 @@
+package com.incogbyte.baiwogen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The message history of a conversation, bounded by an estimated token budget.
+ * <p>
+ * The system prompt and the most recent turns are always kept verbatim. When
+ * the estimate exceeds the budget, older turns are compacted into a single
+ * exchange: the earlier user messages joined together and one assistant
+ * message holding the de-duplicated union of all earlier wordlists. The
+ * union is cut to half of the room the budget leaves, and the joined requests
+ * to what remains, so the compacted exchange never outgrows the budget. This
+ * keeps the prompt size, and therefore Refine latency, flat over a long
+ * session.
+ */
+public class ConversationContext {
+    /** Rough characters-per-token ratio used for estimates. */
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final String COMPACTED_HEADER = "Earlier requests in this conversation (compacted):\n\n";
+
+    public enum Role { SYSTEM, USER, ASSISTANT }
+
+    private final List<Turn> turns = new ArrayList<>();
+    private final int tokenBudget;
+    private final int keepRecent;
+    private int totalChars;
+
+    /**
+     * Creates an empty context.
+     *
+     * @param tokenBudget The estimated token count above which older turns are compacted
+     * @param keepRecent  The number of most recent turns that are never compacted
+     */
+    public ConversationContext(int tokenBudget, int keepRecent) {
+        this.tokenBudget = tokenBudget;
+        this.keepRecent = keepRecent;
+    }
+
+    /**
+     * Appends a turn and compacts the history if it no longer fits the budget.
+     *
+     * @param role    The author of the turn
+     * @param content The message text
+     */
+    public void add(Role role, String content) {
+        turns.add(new Turn(role, content));
+        totalChars += content.length();
+        if (estimatedTokens() > tokenBudget) {
+            compact();
+        }
+    }
+
+    public void clear() {
+        turns.clear();
+        totalChars = 0;
+    }
+
+    /**
+     * Returns the number of turns, including the system prompt.
+     *
+     * @return The turn count
+     */
+    public int size() {
+        return turns.size();
+    }
+
+    /**
+     * Returns the estimated token size of the whole context.
+     *
+     * @return The estimated token count
+     */
+    public int estimatedTokens() {
+        return totalChars / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Returns the number of characters in the whole context.
+     *
+     * @return The character count
+     */
+    public int totalChars() {
+        return totalChars;
+    }
+
+    /**
+     * Estimates the token count of a text of the given length.
+     *
+     * @param chars The number of characters
+     * @return The estimated token count
+     */
+    public static long estimateTokens(long chars) {
+        return chars / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Converts the context to backend messages for a prompt.
+     *
+     * @return The messages, oldest first
+     */
+    public List<AiBackend.Message> toMessages() {
+        List<AiBackend.Message> messages = new ArrayList<>(turns.size());
+        for (Turn turn : turns) {
+            messages.add(new AiBackend.Message(turn.role, turn.content));
+        }
+        return messages;
+    }
+
+    /**
+     * Replaces every turn between the system prompt and the recent tail with
+     * one user turn and one assistant turn. Assistant outputs that cannot be
+     * parsed as a wordlist are dropped, and the merged wordlist is limited to
+     * half of the room left by the other turns.
+     */
+    private void compact() {
+        int first = !turns.isEmpty() && turns.get(0).role == Role.SYSTEM ? 1 : 0;
+        int tailStart = turns.size() - keepRecent;
+        // Keep the tail starting on a user turn so roles keep alternating.
+        while (tailStart > first && turns.get(tailStart).role != Role.USER) {
+            tailStart--;
+        }
+        if (tailStart - first < 2) {
+            return;
+        }
+
+        StringBuilder requests = new StringBuilder(COMPACTED_HEADER);
+        WordlistResult words = new WordlistResult();
+        for (Turn turn : turns.subList(first, tailStart)) {
+            if (turn.role == Role.ASSISTANT) {
+                try {
+                    words.merge(WordlistResult.parse(turn.content));
+                } catch (RuntimeException ignored) {
+                    // An unparseable answer carries no words worth keeping.
+                }
+            } else if (!turn.content.startsWith(COMPACTED_HEADER)) {
+                requests.append(turn.content).append("\n\n");
+            } else {
+                requests.append(turn.content, COMPACTED_HEADER.length(), turn.content.length());
+            }
+        }
+
+        int otherChars = totalChars;
+        for (Turn turn : turns.subList(first, tailStart)) {
+            otherChars -= turn.content.length();
+        }
+        int room = tokenBudget * CHARS_PER_TOKEN - otherChars;
+        String summary = words.limitedTo(Math.max(0, room / 2)).toJson();
+        room -= summary.length();
+        if (requests.length() > room) {
+            requests.setLength(Math.max(COMPACTED_HEADER.length(), room));
+        }
+
+        List<Turn> compacted = new ArrayList<>(turns.subList(0, first));
+        compacted.add(new Turn(Role.USER, requests.toString()));
+        compacted.add(new Turn(Role.ASSISTANT, summary));
+        compacted.addAll(turns.subList(tailStart, turns.size()));
+
+        turns.clear();
+        totalChars = 0;
+        for (Turn turn : compacted) {
+            turns.add(turn);
+            totalChars += turn.content.length();
+        }
+    }
+
+    private static final class Turn {
+        private final Role role;
+        private final String content;
+
+        private Turn(Role role, String content) {
+            this.role = role;
+            this.content = content;
+        }
+    }
+}
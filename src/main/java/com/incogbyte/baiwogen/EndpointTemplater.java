@@ -0,0 +1,195 @@
+package com.incogbyte.baiwogen;
+
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collapses near-duplicate endpoints into templates before they are sent to the AI.
+ * <p>
+ * Path segments that are identifiers rather than vocabulary (numbers, UUIDs,
+ * hashes, dates, opaque tokens) are replaced with placeholders, so
+ * {@code /users/1} and {@code /users/2} both become {@code /users/{id}}.
+ * Payloads sharing a method, host and template are merged into one, with the
+ * union of their parameters and an occurrence count.
+ */
+public class EndpointTemplater {
+    private static final Gson GSON = new Gson();
+    private static final String[] PARAM_KEYS = {"queryParams"};
+    private static final String[] FIELD_KEYS = {"bodyFields", "jsonKeys"};
+
+    /**
+     * Replaces identifier-like segments of a raw path with placeholders.
+     *
+     * @param path The raw URL path
+     * @return The templated path
+     */
+    public static String normalizePath(String path) {
+        StringBuilder out = null;
+        int segStart = 0;
+        for (int i = 0; i <= path.length(); i++) {
+            if (i < path.length() && path.charAt(i) != '/') {
+                continue;
+            }
+            String placeholder = placeholderFor(path, segStart, i);
+            if (placeholder != null && out == null) {
+                out = new StringBuilder(path.length()).append(path, 0, segStart);
+            }
+            if (out != null) {
+                if (placeholder != null) {
+                    out.append(placeholder);
+                } else {
+                    out.append(path, segStart, i);
+                }
+                if (i < path.length()) {
+                    out.append('/');
+                }
+            }
+            segStart = i + 1;
+        }
+        return out == null ? path : out.toString();
+    }
+
+    /**
+     * Merges payload objects by method, host and templated path, and serializes
+     * the result. The first payload of each template supplies the sample body;
+     * parameters and body field names are unioned and a {@code count} field records how many
+     * payloads were merged.
+     *
+     * @param payloads The payload objects, as built by {@link PayloadExtractor}
+     * @return One JSON payload per distinct endpoint template
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> collapse(List<Map<String, Object>> payloads) {
+        Map<String, Map<String, Object>> templates = new LinkedHashMap<>();
+        for (Map<String, Object> payload : payloads) {
+            String template = normalizePath((String) payload.get("path"));
+            String key = payload.get("method") + " " + payload.get("host") + template;
+
+            Map<String, Object> merged = templates.get(key);
+            if (merged == null) {
+                merged = new LinkedHashMap<>(payload);
+                merged.put("path", template);
+                merged.put("count", 1);
+                for (String paramKey : PARAM_KEYS) {
+                    Object params = merged.get(paramKey);
+                    if (params instanceof Map) {
+                        merged.put(paramKey, new LinkedHashMap<>((Map<String, String>) params));
+                    }
+                }
+                for (String fieldKey : FIELD_KEYS) {
+                    Object fields = merged.get(fieldKey);
+                    if (fields instanceof List) {
+                        merged.put(fieldKey, new LinkedHashSet<>((List<String>) fields));
+                    }
+                }
+                templates.put(key, merged);
+                continue;
+            }
+
+            merged.put("count", (Integer) merged.get("count") + 1);
+            for (String paramKey : PARAM_KEYS) {
+                Object params = payload.get(paramKey);
+                if (params instanceof Map) {
+                    Map<String, String> target = (Map<String, String>) merged.computeIfAbsent(
+                        paramKey, k -> new LinkedHashMap<String, String>());
+                    ((Map<String, String>) params).forEach(target::putIfAbsent);
+                }
+            }
+            for (String fieldKey : FIELD_KEYS) {
+                Object fields = payload.get(fieldKey);
+                if (fields instanceof List) {
+                    ((LinkedHashSet<String>) merged.computeIfAbsent(fieldKey, k -> new LinkedHashSet<String>()))
+                        .addAll((List<String>) fields);
+                }
+            }
+        }
+
+        List<String> out = new ArrayList<>(templates.size());
+        for (Map<String, Object> merged : templates.values()) {
+            out.add(GSON.toJson(merged));
+        }
+        return out;
+    }
+
+    private static String placeholderFor(String path, int start, int end) {
+        int len = end - start;
+        if (len == 0) {
+            return null;
+        }
+
+        int digits = 0;
+        int hex = 0;
+        int alnum = 0;
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                hex++;
+                alnum++;
+            } else if ((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')) {
+                hex++;
+                alnum++;
+            } else if ((c >= 'g' && c <= 'z') || (c >= 'G' && c <= 'Z')) {
+                alnum++;
+            }
+        }
+
+        if (digits == len) {
+            return "{id}";
+        }
+        if (isUuid(path, start, len)) {
+            return "{uuid}";
+        }
+        if (isDate(path, start, len)) {
+            return "{date}";
+        }
+        if (hex == len && len >= 16 && digits > 0) {
+            return "{hash}";
+        }
+        if (alnum == len && len >= 24 && digits > 0) {
+            return "{token}";
+        }
+        return null;
+    }
+
+    private static boolean isUuid(String s, int start, int len) {
+        if (len != 36) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(start + i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash != (c == '-')) {
+                return false;
+            }
+            if (!dash && Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Matches {@code yyyy-mm-dd}, {@code yyyy_mm_dd} and {@code yyyy.mm.dd}.
+     */
+    private static boolean isDate(String s, int start, int len) {
+        if (len != 10) {
+            return false;
+        }
+        char sep = s.charAt(start + 4);
+        if ((sep != '-' && sep != '_' && sep != '.') || s.charAt(start + 7) != sep) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (i != 4 && i != 7 && !Character.isDigit(s.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
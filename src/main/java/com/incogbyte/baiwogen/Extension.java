@@ -1,77 +1,189 @@
 package com.incogbyte.baiwogen;
 
 import java.awt.Component;
-import java.net.URI;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-
 import burp.api.montoya.BurpExtension;
 import burp.api.montoya.MontoyaApi;
 import burp.api.montoya.EnhancedCapability;
 import burp.api.montoya.http.message.HttpRequestResponse;
-import burp.api.montoya.http.message.MimeType;
-import burp.api.montoya.http.message.responses.HttpResponse;
-import burp.api.montoya.sitemap.SiteMap;
 import burp.api.montoya.ui.contextmenu.ContextMenuEvent;
 import burp.api.montoya.ui.contextmenu.ContextMenuItemsProvider;
 import burp.api.montoya.ui.contextmenu.InvocationType;
-import burp.api.montoya.ai.Ai;
 import burp.api.montoya.ai.chat.Prompt;
 import burp.api.montoya.logging.Logging;
 import java.util.Set;
-import java.lang.reflect.Type;
-import com.google.gson.JsonSyntaxException; 
 
 public class Extension implements BurpExtension, ContextMenuItemsProvider {
-    private static final Gson GSON = new Gson();
+    private static final int MAX_EXPANDED_ENTRIES = 250_000;
+    private static final int MINED_PAYLOAD_WORDS = 100;
+    private static final int MINE_MAX_BODY_BYTES = 4 << 20;
+    private static final int DEBUG_SAMPLE_PAYLOADS = 5;
+    private static final int LIVE_BATCH_SIZE = 25;
+    private static final long LIVE_WINDOW_MILLIS = 60_000;
+    private static final int MAX_CONCURRENT_JOBS = 4;
+    private static final int AI_MAX_CONCURRENT = 4;
+    private static final int AI_MAX_ATTEMPTS = 4;
+    private static final long AI_BASE_BACKOFF_MILLIS = 2_000;
+    private static final long AI_MAX_BACKOFF_MILLIS = 60_000;
+    private static final int PROBE_MAX_CONCURRENCY = 16;
+    private static final int PROBE_BODY_BYTES = 16 * 1024;
+    private static final List<String> PROBED_CATEGORIES = List.of("Paths", "Files");
+    private static final String FILTERS_PREFERENCE = "baiwogen.filters";
+    private static final Path WORD_STORE_FILE = Path.of(System.getProperty("user.home"), ".baiwogen", "wordstore.bin.gz");
+    private static final Path HIT_INDEX_FILE = Path.of(System.getProperty("user.home"), ".baiwogen", "hits.bin.gz");
+    private static final int HIT_INDEX_MAX_WORDS = 200_000;
+    private static final int WORD_STORE_MAX_WORDS = 50_000;
 
     private MontoyaApi api;
     private Logging logging;
+    private LogSink logSink;
     private Prompt aiPrompt;
-    private Ai ai;
-    private AIConversationManager conversationManager;
+    private AiScheduler aiScheduler;
+    private SessionRegistry sessions;
+    private WordlistCache wordlistCache;
     private WordlistPanel wordlistPanel;
-    private List<String> lastExtractedContent;
+    private SitemapIndex sitemapIndex;
+    private PayloadExtractor payloadExtractor;
+    private EndpointTemplater endpointTemplater;
+    private final ResponseMiner responseMiner = new ResponseMiner(MINE_MAX_BODY_BYTES);
+    private JobScheduler jobScheduler;
+    private WordStore wordStore;
+    private HitIndex hitIndex;
+    private WordlistRanker ranker;
+    private final PipelineMetrics metrics = new PipelineMetrics();
+    private LiveTrafficMonitor liveTrafficMonitor;
+    private Prober prober;
+    private final MutationEngine mutationEngine = new MutationEngine(3);
 
     @Override
     public void initialize(MontoyaApi api) {
         this.api = api;
         this.logging = api.logging();
-        this.ai = api.ai();
+        this.logSink = logSink(logging);
         this.aiPrompt = api.ai().prompt();
-        this.conversationManager = new AIConversationManager(aiPrompt, logging);
+        this.aiScheduler = new AiScheduler(createAiBackend(), logSink, AI_MAX_CONCURRENT, AI_MAX_ATTEMPTS,
+            AI_BASE_BACKOFF_MILLIS, AI_MAX_BACKOFF_MILLIS);
+        this.wordlistCache = new WordlistCache(api.persistence().extensionData(), 256);
+        this.sessions = new SessionRegistry(key -> new AIConversationManager(aiScheduler, logSink, wordlistCache, metrics));
+        this.sitemapIndex = new SitemapIndex(api.siteMap());
+        this.payloadExtractor = new PayloadExtractor(logSink, Runtime.getRuntime().availableProcessors());
+        this.payloadExtractor.setFilters(loadFilters());
+        this.endpointTemplater = new EndpointTemplater();
+        this.wordStore = loadWordStore();
+        this.hitIndex = loadHitIndex();
+        this.ranker = new WordlistRanker(hitIndex);
+        this.prober = new Prober(new MontoyaProbeTransport(api.http(), PROBE_BODY_BYTES), PROBE_MAX_CONCURRENCY);
 
         api.extension().setName("Baiwogen - AI-Powered Wordlist Generator");
         api.userInterface().registerContextMenuItemsProvider(this);
+        api.http().registerHttpHandler(sitemapIndex);
+        api.extension().registerUnloadingHandler(payloadExtractor::shutdown);
+        api.extension().registerUnloadingHandler(this::saveWordStore);
+        api.http().registerHttpHandler(new IntruderHitRecorder(hitIndex, PROBE_BODY_BYTES));
+        api.extension().registerUnloadingHandler(this::saveHitIndex);
 
         wordlistPanel = new WordlistPanel();
         api.userInterface().registerSuiteTab("Baiwogen", wordlistPanel);
 
+        metrics.setListener(m -> wordlistPanel.updateMetrics(m.summary(), m.detailsHtml()));
+        wordlistPanel.addDebugLoggingListener(e -> metrics.setDebug(wordlistPanel.isDebugLogging()));
+
+        jobScheduler = new JobScheduler(MAX_CONCURRENT_JOBS, logSink, wordlistPanel);
+        api.extension().registerUnloadingHandler(jobScheduler::shutdown);
+
+        liveTrafficMonitor = new LiveTrafficMonitor(api.scope(), payloadExtractor, logging,
+            LIVE_BATCH_SIZE, LIVE_WINDOW_MILLIS, this::extendWordlist);
+        api.http().registerHttpHandler(liveTrafficMonitor);
+        api.extension().registerUnloadingHandler(liveTrafficMonitor::shutdown);
+        wordlistPanel.addPassiveModeListener(e -> liveTrafficMonitor.setEnabled(wordlistPanel.isPassiveMode()));
+
         wordlistPanel.addResetContextListener(e -> {
-            conversationManager.resetContext();
-            wordlistPanel.resetAll();
-            wordlistPanel.updateContextSize(conversationManager.getContextSize());
-            wordlistPanel.updateStatus("Context reset.");
+            Session session = sessions.get(wordlistPanel.getSelectedSession());
+            if (session == null) {
+                return;
+            }
+            jobScheduler.submit("Reset " + session.key(), session, ctx -> {
+                session.reset();
+                showIfSelected(session);
+                ctx.progress("Context reset for " + session.key() + ".");
+            });
         });
         wordlistPanel.addRefineListener(e -> {
-            String query = JOptionPane.showInputDialog(null, "Enter refinement query:");
+            Session session = sessions.get(wordlistPanel.getSelectedSession());
+            if (session == null) {
+                wordlistPanel.updateStatus("Generate a wordlist first.");
+                return;
+            }
+            String query = JOptionPane.showInputDialog(null, "Enter refinement query for " + session.key() + ":");
             if (query != null && !query.isBlank()) {
-                String result = conversationManager.addUserQuery(query);
-                populateCategories(result);
-                wordlistPanel.updateContextSize(conversationManager.getContextSize());
-                wordlistPanel.updateStatus("Wordlist refined successfully!");
+                jobScheduler.submit("Refine " + session.key(), session, ctx -> {
+                    int run = wordStore.beginRun();
+                    ctx.progress("Refining wordlist for " + session.key() + "...");
+                    String result = session.conversation().addUserQuery(query);
+                    ctx.checkCancelled();
+                    if (result.startsWith("Error")) {
+                        ctx.progress("Error: " + result);
+                        return;
+                    }
+                    String summary = populateCategories(session, result, false, run);
+                    if (summary != null) {
+                        ctx.progress("Wordlist refined successfully! " + summary + ".");
+                    }
+                });
+            }
+        });
+        wordlistPanel.addVerifyListener(e -> {
+            Session session = sessions.get(wordlistPanel.getSelectedSession());
+            if (session == null) {
+                wordlistPanel.updateStatus("Generate a wordlist first.");
+                return;
+            }
+            jobScheduler.submit("Verify " + session.key(), session, ctx -> verifyWordlist(session, ctx));
+        });
+        wordlistPanel.addSessionSelectionListener(e -> {
+            Session session = sessions.get(wordlistPanel.getSelectedSession());
+            if (session != null) {
+                showIfSelected(session);
+            }
+        });
+        wordlistPanel.addCancelJobsListener(e -> jobScheduler.cancelAll());
+        for (String category : List.of("Paths", "Files", "Params")) {
+            api.intruder().registerPayloadGeneratorProvider(new WordlistPayloadProvider(category,
+                () -> sessions.get(wordlistPanel.getSelectedSession()), wordlistPanel::getPayloadTransforms));
+        }
+        wordlistPanel.setFilterSource(payloadExtractor::filters, chain -> {
+            payloadExtractor.setFilters(chain);
+            api.persistence().preferences().setString(FILTERS_PREFERENCE, chain.text());
+        });
+        wordlistPanel.setHitImporter(file -> jobScheduler.submit("Import hits", hitIndex, ctx -> {
+            int imported = hitIndex.importList(file.toPath());
+            saveHitIndex();
+            ctx.progress("Imported " + imported + " hits from " + file.getName() + "; they rank entries from the next generation on.");
+        }));
+        wordlistPanel.setWordSource(category -> {
+            Session session = sessions.get(wordlistPanel.getSelectedSession());
+            return session == null ? List.of() : visibleItems(session, category);
+        });
+        wordlistPanel.addNewOnlyListener(e -> {
+            Session session = sessions.get(wordlistPanel.getSelectedSession());
+            if (session != null) {
+                showIfSelected(session);
             }
         });
+        restoreSessions();
 
         logging.logToOutput("Baiwogen extension loaded.");
     }
@@ -92,201 +204,436 @@ public class Extension implements BurpExtension, ContextMenuItemsProvider {
         return menuItems;
     }
 
+    /**
+     * Generates wordlists for every selected sitemap node. Selections are
+     * grouped by host into the prefixes covering them, and each host runs as
+     * its own job, so hosts generate concurrently up to the job pool size.
+     */
     private void generateWordlist(ContextMenuEvent event) {
-    new Thread(() -> {
-        try {
-            List<HttpRequestResponse> sel = event.selectedRequestResponses();
-            if (sel.isEmpty()) {
-                logging.logToOutput("Select a node in the sitemap first.");
-                return;
-            }
-            String first = sel.get(0).request().url();
-            String prefix = first.substring(0, first.lastIndexOf('/') + 1);
+        List<HttpRequestResponse> sel = event.selectedRequestResponses();
+        if (sel.isEmpty()) {
+            logging.logToOutput("Select a node in the sitemap first.");
+            return;
+        }
+        List<String> urls = new ArrayList<>(sel.size());
+        for (HttpRequestResponse item : sel) {
+            urls.add(item.request().url());
+        }
+        Map<String, List<String>> byHost = SitemapIndex.coveringPrefixes(urls);
+        if (byHost.size() > 1) {
+            wordlistPanel.updateStatus("Generating wordlists for " + byHost.size() + " hosts, "
+                + MAX_CONCURRENT_JOBS + " at a time...");
+        }
+        boolean first = true;
+        for (Map.Entry<String, List<String>> host : byHost.entrySet()) {
+            generateWordlist(host.getKey(), host.getValue(), first);
+            first = false;
+        }
+    }
 
-            List<HttpRequestResponse> items = api.siteMap()
-                .requestResponses()
-                .stream()
-                .filter(rr -> rr.request().url().startsWith(prefix))
-                .collect(Collectors.toList());
+    /**
+     * Queues one generation for a host, covering all of its selected prefixes.
+     *
+     * @param key      The session key of the host
+     * @param prefixes The covering prefixes, none under another
+     * @param select   Whether to show the host's session in the tab
+     */
+    private void generateWordlist(String key, List<String> prefixes, boolean select) {
+        String prefix = prefixes.size() == 1 ? prefixes.get(0) : key + " (" + prefixes.size() + " prefixes)";
+        Session session = sessions.getOrCreate(key);
+        wordlistPanel.addSession(session.key());
+        if (select) {
+            wordlistPanel.selectSession(session.key());
+        }
+        session.setPrefix(SitemapIndex.commonPrefix(prefixes));
+        AIConversationManager conversationManager = session.conversation();
+
+        jobScheduler.submit("Generate " + prefix, session, ctx -> {
+            int run = wordStore.beginRun();
+            ctx.progress("Collecting sitemap items under " + prefix + "...");
+            List<RequestSample> items = metrics.time(PipelineMetrics.Stage.LOOKUP, () -> {
+                List<RequestSample> all = new ArrayList<>();
+                for (String p : prefixes) {
+                    all.addAll(sitemapIndex.lookup(p));
+                }
+                return all;
+            });
 
             if (items.isEmpty()) {
-                wordlistPanel.updateStatus("No items under " + prefix);
+                ctx.progress("No items under " + prefix);
                 return;
             }
 
-            List<String> payloads = new ArrayList<>();
-            for (HttpRequestResponse rr : items) {
-                String payload = buildJsonPayload(rr);
-                if (payload != null) {
-                    payloads.add(payload);
+            ctx.checkCancelled();
+            List<Map<String, Object>> extracted = metrics.time(PipelineMetrics.Stage.EXTRACT, () -> payloadExtractor.extractAll(items));
+            metrics.add(PipelineMetrics.Counter.ITEMS_SCANNED, items.size());
+            metrics.add(PipelineMetrics.Counter.ITEMS_FILTERED, items.size() - extracted.size());
+            liveTrafficMonitor.markSeen(extracted);
+            List<String> sitemapPaths = new ArrayList<>(extracted.size());
+            for (Map<String, Object> payload : extracted) {
+                sitemapPaths.add((String) payload.get("path"));
+            }
+            session.setStackExtensions(MutationEngine.detectExtensions(sitemapPaths, 3));
+            session.addSitemapCounts(WordlistRanker.sitemapCounts(extracted));
+            List<String> payloads = metrics.time(PipelineMetrics.Stage.TEMPLATE, () -> endpointTemplater.collapse(extracted));
+            logging.logToOutput("Collapsed " + extracted.size() + " payloads into " + payloads.size() + " endpoint templates.");
+
+            ctx.checkCancelled();
+            ResponseMiner.Result mined = metrics.time(PipelineMetrics.Stage.MINE, () -> {
+                ResponseMiner.Result merged = new ResponseMiner.Result();
+                for (String p : prefixes) {
+                    merged.merge(responseMiner.mineAll(sitemapIndex.responses(p)));
                 }
+                return merged;
+            });
+            logging.logToOutput("Mined " + mined.paths().size() + " paths and " + mined.params().size()
+                + " parameter names from responses.");
+            if (!mined.isEmpty()) {
+                payloads.add(mined.toPayload(MINED_PAYLOAD_WORDS));
             }
 
             if (payloads.isEmpty()) {
-                wordlistPanel.updateStatus("No relevant items under " + prefix);
+                ctx.progress("No relevant items under " + prefix);
                 return;
             }
 
-            wordlistPanel.updateStatus("Sending JSON payloads to AI...");
-            String resultJson = conversationManager.startConversation(payloads);
+            if (metrics.isDebug()) {
+                for (String payload : payloads.subList(0, Math.min(DEBUG_SAMPLE_PAYLOADS, payloads.size()))) {
+                    logging.logToOutput("Sample payload: " + payload);
+                }
+            }
+
+            ctx.checkCancelled();
+            ctx.progress("Sending " + payloads.size() + " JSON payloads to AI...");
+            conversationManager.setSeedsOnly(wordlistPanel.isLocalExpansion());
+            String resultJson = wordlistPanel.isBatchMode()
+                ? conversationManager.startBatchedConversation(payloads, wordlistPanel.getBatchParallelism())
+                : conversationManager.startConversation(payloads);
 
             if (resultJson.startsWith("Error")) {
-                wordlistPanel.updateStatus("Error: " + resultJson);
+                ctx.progress("Error: " + resultJson);
                 return;
             }
-            
-            wordlistPanel.updateStatus("Everything is fine, generating wordlist...");
-            populateCategories(resultJson);
 
-            wordlistPanel.updateContextSize(conversationManager.getContextSize());
-            wordlistPanel.updateStatus("Wordlist generated successfully!");
+            ctx.checkCancelled();
+            ctx.progress("Everything is fine, generating wordlist...");
+            String summary = populateCategories(session, resultJson, false, run);
+            if (summary != null) {
+                int minedNew = addMinedWords(session, mined, run);
+                ctx.progress("Wordlist generated successfully! " + summary + "; " + minedNew + " mined words new.");
+            }
+        });
+    }
+
+    /**
+     * Adds the paths and parameter names mined from responses to the word
+     * store and to the end of the session's lists, after the AI's entries.
+     *
+     * @param session The session the words were mined for
+     * @param mined   The mined words
+     * @param run     The word store run of the job
+     * @return The number of mined words new for this host
+     */
+    private int addMinedWords(Session session, ResponseMiner.Result mined, int run) {
+        int added = 0;
+        Map<String, List<String>> appended = new HashMap<>();
+        Map<String, List<String>> categories = Map.of("Paths", mined.paths(), "Params", mined.params());
+        for (Map.Entry<String, List<String>> category : categories.entrySet()) {
+            added += wordStore.addAll(session.key(), category.getKey(), category.getValue(), run);
+            Set<String> fresh = new LinkedHashSet<>(category.getValue());
+            fresh.removeAll(new HashSet<>(session.items(category.getKey())));
+            appended.put(category.getKey(), new ArrayList<>(fresh));
         }
-        catch (Exception ex) {
-            logging.logToError("Error generating wordlist: " + ex.getMessage());
-            wordlistPanel.updateStatus("Error: " + ex.getMessage());
+        appendItems(session, appended);
+        return added;
+    }
+
+    /**
+     * Adds entries to the end of a session's lists. When the session is
+     * shown with all entries, only the new rows are appended to the tabs
+     * instead of re-rendering the lists.
+     *
+     * @param session  The session
+     * @param appended Category to the entries it does not have yet
+     */
+    private void appendItems(Session session, Map<String, List<String>> appended) {
+        appended.forEach((category, entries) -> {
+            List<String> items = new ArrayList<>(session.items(category));
+            items.addAll(entries);
+            session.setItems(category, items);
+        });
+        if (!session.key().equals(wordlistPanel.getSelectedSession()) || wordlistPanel.isNewOnly()) {
+            // New only shows the latest run, which replaces the view rather than extending it.
+            showIfSelected(session);
+            return;
         }
-    }).start();
-}
+        appended.forEach(wordlistPanel::appendCategoryItems);
+    }
+
+    /**
+     * Sends endpoints first seen in live traffic to the session's conversation
+     * and adds the resulting entries to its lists.
+     *
+     * @param sessionKey The session the traffic belongs to
+     * @param extracted  The new payloads, as built by {@link PayloadExtractor}
+     */
+    private void extendWordlist(String sessionKey, List<Map<String, Object>> extracted) {
+        Session session = sessions.getOrCreate(sessionKey);
+        wordlistPanel.addSession(session.key());
+        jobScheduler.submit("Live " + sessionKey, session, ctx -> {
+            int run = wordStore.beginRun();
+            session.addSitemapCounts(WordlistRanker.sitemapCounts(extracted));
+            List<String> payloads = endpointTemplater.collapse(extracted);
+            ctx.progress("Passive mode: sending " + payloads.size() + " new endpoints on " + sessionKey + " to AI...");
+            AIConversationManager conversation = session.conversation();
+            conversation.setSeedsOnly(wordlistPanel.isLocalExpansion());
+            String result = conversation.extendConversation(payloads);
+            ctx.checkCancelled();
+            if (result.startsWith("Error")) {
+                ctx.progress("Error: " + result);
+                return;
+            }
+            String summary = populateCategories(session, result, true, run);
+            if (summary != null) {
+                ctx.progress("Passive mode: " + payloads.size() + " endpoints on " + sessionKey + ", " + summary + ".");
+            }
+        });
+    }
 
-  private String buildJsonPayload(HttpRequestResponse rr) {
-    try {
-        String rawUrl = rr.request().url()
-            .replace("{", "%7B")
-            .replace("}", "%7D")
-            .replace(" ", "%20");
-        
-        URI uri = new URI(rawUrl);
-        
-        URI safeUri = new URI(
-            uri.getScheme(),
-            uri.getAuthority(),
-            uri.getRawPath(),
-            uri.getRawQuery(),
-            null
-        );
-
-        String safePath = safeUri.getRawPath();
-        if (safePath.matches(".*\\.(css|png|jpe?g|gif|svg|woff2?|ttf|otf|ico)$")) {
-            return null;
+    /**
+     * Probes the session's Paths and Files entries against the target and
+     * keeps only the live ones, annotated with their status codes.
+     */
+    private void verifyWordlist(Session session, JobScheduler.JobContext ctx) throws InterruptedException {
+        Map<String, List<String>> candidates = new LinkedHashMap<>();
+        for (String category : PROBED_CATEGORIES) {
+            candidates.put(category, session.items(category));
         }
-        
-        String host  = safeUri.getHost();
-        String path  = safePath;
-        String query = safeUri.getRawQuery();
-        
-        Map<String,String> params = new LinkedHashMap<>();
-        if (query != null) {
-            for (String kv : query.split("&")) {
-                String[] p = kv.split("=", 2);
-                params.put(p[0], p.length>1 ? p[1] : "");
+        ctx.progress("Verifying entries against " + session.key() + "...");
+        Prober.Report report = prober.probe(session.key(), session.prefixPath(), candidates,
+            (done, total, concurrency) -> ctx.progress("Verifying " + session.key() + ": " + done + "/" + total
+                + ", " + concurrency + " in flight"));
+        for (String category : PROBED_CATEGORIES) {
+            Map<String, Integer> kept = report.kept(category);
+            for (String entry : candidates.get(category)) {
+                Integer status = kept.get(entry);
+                if (status == null || status != Prober.STATUS_ERROR) {
+                    hitIndex.record(entry, status != null);
+                }
             }
+            session.setItems(category, new ArrayList<>(kept.keySet()));
+            session.setStatuses(category, kept);
+        }
+        showIfSelected(session);
+        logging.logToOutput("Verified " + session.key() + ": " + report.summary());
+        ctx.progress("Verified " + session.key() + ": " + report.summary() + ".");
+    }
+
+    /**
+     * Parses the AI output into the session's lists and records the AI's own
+     * entries, without local variants, in the word store. Mined words are
+     * added separately, see {@link #addMinedWords}.
+     *
+     * @param session  The session to populate
+     * @param aiOutput The raw AI output
+     * @param append   Whether to add to the existing lists instead of replacing them; new entries
+     *                 are ranked among themselves and appended after the existing ones
+     * @param run      The word store run of the job, begun once per job
+     * @return A summary of the entries new for this host, or null if parsing failed
+     */
+    private String populateCategories(Session session, String aiOutput, boolean append, int run) {
+        if (metrics.isDebug()) {
+            logging.logToOutput("AI output: " + aiOutput.trim());
         }
-        
-        Map<String,Object> obj = new LinkedHashMap<>();
-        obj.put("method", rr.request().method());
-        obj.put("host",   host);
-        obj.put("path",   path);
-        obj.put("queryParams", params);
-        
-        String body = rr.request().bodyToString();
-        String contentType = rr.request().headers().stream()
-            .filter(h -> h.name().equalsIgnoreCase("Content-Type"))
-            .map(h -> h.value())
-            .findFirst().orElse("");
-        
-        if (contentType.startsWith("application/x-www-form-urlencoded")) {
-            Map<String,String> form = new LinkedHashMap<>();
-            for (String kv : body.split("&")) {
-                String[] p = kv.split("=",2);
-                form.put(p[0], p.length>1 ? p[1] : "");
+        try {
+            WordlistResult result = metrics.time(PipelineMetrics.Stage.PARSE, () -> WordlistResult.parse(aiOutput));
+            if (!result.isComplete()) {
+                logging.logToError("AI output was incomplete (" + result.problem() + "); salvaged "
+                    + result.size() + " entries.");
+            }
+
+            Map<String, List<String>> sections = Map.of(
+                "Files", result.files(), "Paths", result.paths(), "Params", result.params());
+            Map<String, List<String>> generated = new HashMap<>();
+            if (wordlistPanel.isLocalExpansion()) {
+                generated.put("Files", take(mutationEngine.expandFiles(result.files(), session.stackExtensions())));
+                generated.put("Paths", take(mutationEngine.expandPaths(result.paths())));
+                generated.put("Params", take(mutationEngine.expandParams(result.params())));
+            } else {
+                generated.put("Files", result.files());
+                generated.put("Paths", result.paths());
+                generated.put("Params", result.params());
+            }
+            Map<String, List<String>> appended = new HashMap<>();
+            generated.forEach((category, words) -> {
+                List<String> entries;
+                if (append) {
+                    Set<String> fresh = new LinkedHashSet<>(words);
+                    fresh.removeAll(new HashSet<>(session.items(category)));
+                    entries = new ArrayList<>(fresh);
+                } else {
+                    entries = words;
+                }
+                List<String> ranked = metrics.time(PipelineMetrics.Stage.RANK,
+                    () -> ranker.rank(entries, sections.get(category), session.sitemapCounts()));
+                if (append) {
+                    appended.put(category, ranked);
+                } else {
+                    session.setItems(category, ranked);
+                }
+            });
+            if (append) {
+                appendItems(session, appended);
+            } else {
+                showIfSelected(session);
+            }
+
+            int added = 0;
+            for (Map.Entry<String, List<String>> section : sections.entrySet()) {
+                added += wordStore.addAll(session.key(), section.getKey(), section.getValue(), run);
             }
-            obj.put("bodyParams", form);
+            String summary = added + " new since last run";
+            return result.isComplete() ? summary : summary + "; salvaged " + result.size() + " entries from incomplete output";
+
+        } catch (IllegalArgumentException ex) {
+            logging.logToError("Failed to parse AI JSON: " + ex.getMessage());
+            logging.logToOutput("Raw AI output:\n" + aiOutput);
+            wordlistPanel.updateStatus("Error parsing AI output — check logs");
         }
-        else if (contentType.contains("application/json")) {
-            try {
-                Type t = new TypeToken<Map<String,Object>>(){}.getType();
-                obj.put("jsonBody", GSON.fromJson(body, t));
-            } catch (Exception e) {
-                obj.put("body", body.length()>2000? body.substring(0,2000): body);
+        return null;
+    }
+
+    private static LogSink logSink(Logging logging) {
+        return new LogSink() {
+            @Override
+            public void logToOutput(String message) {
+                logging.logToOutput(message);
+            }
+
+            @Override
+            public void logToError(String message) {
+                logging.logToError(message);
             }
+        };
+    }
+
+    /**
+     * Returns the backend selected with the {@code baiwogen.backend} system
+     * property: {@code local} for the offline stand-in, the Burp AI otherwise.
+     */
+    private AiBackend createAiBackend() {
+        if ("local".equalsIgnoreCase(System.getProperty("baiwogen.backend"))) {
+            logging.logToOutput("Using the local deterministic AI backend.");
+            return new LocalAiBackend();
         }
-        else if (!body.isBlank()) {
-            obj.put("body", body.length()>2000? body.substring(0,2000): body);
+        return new MontoyaAiBackend(aiPrompt);
+    }
+
+    private FilterChain loadFilters() {
+        String rules = api.persistence().preferences().getString(FILTERS_PREFERENCE);
+        if (rules == null) {
+            return FilterChain.defaults();
+        }
+        try {
+            return FilterChain.parse(rules);
+        } catch (IllegalArgumentException ex) {
+            logging.logToError("Saved filter rules are invalid, using the defaults: " + ex.getMessage());
+            return FilterChain.defaults();
         }
-        
-        String json = GSON.toJson(obj);
-        logging.logToOutput("Sending JSON payload: " + json);
-        return json;
-        
-    } catch (Exception e) {
-        logging.logToError("Skipping URL: " + rr.request().url() + " → " + e.getMessage());
-        return null;
     }
-}
 
-    private void populateCategories(String aiOutput) {
-    
-    String text = aiOutput.trim();
-
-    int start = text.indexOf('{');
-    int end   = text.lastIndexOf('}');
-    logging.logToOutput("AI output: " + text);
-    if (start < 0 || end <= start) {
-        logging.logToError("No JSON object found in AI output");
-        wordlistPanel.updateStatus("Error parsing AI output");
-        return;
+    private HitIndex loadHitIndex() {
+        try {
+            HitIndex index = HitIndex.load(HIT_INDEX_FILE, HIT_INDEX_MAX_WORDS);
+            logging.logToOutput("Hit index loaded: " + index.size() + " words.");
+            return index;
+        } catch (IOException ex) {
+            logging.logToError("Error loading hit index, starting empty: " + ex.getMessage());
+            return new HitIndex(HIT_INDEX_MAX_WORDS);
+        }
     }
-    String json = text.substring(start, end + 1);
-
-    if ((json.startsWith("\"") && json.endsWith("\"")) ||
-        (json.startsWith("'") && json.endsWith("'"))) {
-        json = json.substring(1, json.length() - 1)
-                   .replace("\\\"", "\"")
-                   .replace("\\n", "\n")
-                   .replace("\\\\", "\\");
+
+    private void saveHitIndex() {
+        try {
+            hitIndex.save(HIT_INDEX_FILE);
+        } catch (IOException ex) {
+            logging.logToError("Error saving hit index: " + ex.getMessage());
+        }
     }
 
-    try {
-        Type mapType = new TypeToken<Map<String, List<String>>>() {}.getType();
-        Map<String, List<String>> map = GSON.fromJson(json, mapType);
+    private WordStore loadWordStore() {
+        try {
+            WordStore store = WordStore.load(WORD_STORE_FILE, WORD_STORE_MAX_WORDS);
+            logging.logToOutput("Word store loaded: " + store.summary());
+            return store;
+        } catch (IOException ex) {
+            logging.logToError("Error loading word store, starting empty: " + ex.getMessage());
+            return new WordStore(WORD_STORE_MAX_WORDS);
+        }
+    }
 
-        List<String> files  = splitCommaList(map.getOrDefault("fileVariations",  List.of()));
-        List<String> paths  = splitCommaList(map.getOrDefault("pathVariations",  List.of()));
-        List<String> params = splitCommaList(map.getOrDefault("paramVariations", List.of()));
+    private void saveWordStore() {
+        try {
+            wordStore.save(WORD_STORE_FILE);
+        } catch (IOException ex) {
+            logging.logToError("Error saving word store: " + ex.getMessage());
+        }
+    }
 
-        wordlistPanel.setCategoryItems("Files", files);
-        wordlistPanel.setCategoryItems("Paths", paths);
-        wordlistPanel.setCategoryItems("Params", params);
+    private static List<String> take(Iterator<String> words) {
+        Set<String> out = new LinkedHashSet<>();
+        while (words.hasNext() && out.size() < MAX_EXPANDED_ENTRIES) {
+            out.add(words.next());
+        }
+        return new ArrayList<>(out);
+    }
 
-    } catch (JsonSyntaxException|IllegalStateException ex) {
-        logging.logToError("Failed to parse AI JSON: " + ex.getMessage());
-        logging.logToOutput("Raw AI output:\n" + aiOutput);
-        wordlistPanel.updateStatus("Error parsing AI output — check logs");
+    /**
+     * Recreates a session for every host in the word store, with the entries
+     * the AI generated for it in earlier runs. Conversations are not stored,
+     * so a restored session starts a fresh one.
+     */
+    private void restoreSessions() {
+        for (String host : wordStore.hosts()) {
+            Session session = sessions.getOrCreate(host);
+            for (String category : WordlistPanel.CATEGORIES) {
+                List<String> words = wordStore.words(host, category);
+                session.setItems(category, ranker.rank(words, words, Map.of()));
+            }
+            wordlistPanel.addSession(host);
+        }
+        if (!wordStore.hosts().isEmpty()) {
+            logging.logToOutput("Restored " + wordStore.hosts().size() + " sessions from the word store.");
+        }
     }
-}
 
-private List<String> splitCommaList(List<String> raw) {
-    List<String> out = new ArrayList<>();
-    for (String item : raw) {
-        for (String part : item.split(",")) {
-            part = part.trim();
-            if (!part.isEmpty()) {
-                out.add(part);
+    /**
+     * Returns a category's entries as shown in the tab: all of them, or with
+     * New only checked, the AI entries first added in the host's latest run.
+     */
+    private List<String> visibleItems(Session session, String category) {
+        if (!wordlistPanel.isNewOnly()) {
+            return session.items(category);
+        }
+        Set<String> fresh = new HashSet<>(wordStore.diff(session.key(), category));
+        List<String> out = new ArrayList<>();
+        for (String item : session.items(category)) {
+            if (fresh.contains(item)) {
+                out.add(item);
             }
         }
+        return out;
     }
-    return out;
-}
 
-private String extractJsonObject(String aiOutput) {
-    String s = aiOutput.trim();
-    if (!s.startsWith("{")) {
-        int start = s.indexOf('{');
-        int end   = s.lastIndexOf('}');
-        if (start >= 0 && end > start) {
-            s = s.substring(start, end+1);
+    private void showIfSelected(Session session) {
+        if (!session.key().equals(wordlistPanel.getSelectedSession())) {
+            return;
         }
+        for (String category : WordlistPanel.CATEGORIES) {
+            wordlistPanel.setCategoryItems(category, visibleItems(session, category));
+            wordlistPanel.setCategoryStatuses(category, session.statuses(category));
+        }
+        AIConversationManager conversation = session.conversation();
+        wordlistPanel.updateContextSize(conversation.getContextSize(), conversation.getContextTokens());
     }
-    return s;
-}
 }
@@ -0,0 +1,436 @@
+package com.incogbyte.baiwogen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * User-editable include and exclude rules for sitemap entries, compiled into
+ * one matcher.
+ * <p>
+ * Rules are written one per line as {@code include|exclude <kind> [values]}:
+ * <ul>
+ *   <li>{@code ext css png ...} matches the file extension of the last path segment</li>
+ *   <li>{@code mime IMAGE_* FONT_WOFF2 ...} matches the response's Burp MimeType name</li>
+ *   <li>{@code hashed} matches content-hashed bundles such as {@code main.3f9a2c1b.js}</li>
+ *   <li>{@code out-of-scope} matches entries outside the Burp target scope</li>
+ *   <li>{@code status 404 5xx ...} matches the response status code</li>
+ *   <li>{@code path /static/* *logout*} matches the path against globs</li>
+ * </ul>
+ * An entry matched by any include rule is kept; otherwise the first exclude
+ * rule that matches it drops it. Extensions and MIME names are compiled into
+ * hash maps, status codes into a lookup table and all path globs into one
+ * alternation, so checking an entry costs a few lookups whatever the number of
+ * rules. Response and scope data are only read when a rule needs them. Each
+ * rule counts the entries it decided.
+ */
+public final class FilterChain {
+    public static final String DEFAULT_RULES = """
+        # One rule per line: include|exclude <kind> [values]
+        # Kinds: ext, mime (Burp MimeType names, * wildcard at the end), hashed,
+        #        out-of-scope, status (codes or 4xx), path (globs, * matches anything)
+        # An entry matched by an include rule is always kept.
+        exclude ext css png jpg jpeg gif svg ico webp bmp woff woff2 ttf otf eot map
+        exclude hashed
+        """;
+    private static final int MIN_HEX_HASH = 8;
+    private static final int MIN_MIXED_HASH = 16;
+
+    private enum Kind { EXT, MIME, HASHED, OUT_OF_SCOPE, STATUS, PATH }
+
+    private static final class Rule {
+        private final int index;
+        private final boolean include;
+        private final String text;
+        private final LongAdder count = new LongAdder();
+
+        private Rule(int index, boolean include, String text) {
+            this.index = index;
+            this.include = include;
+            this.text = text;
+        }
+    }
+
+    private final String source;
+    private final List<Rule> rules = new ArrayList<>();
+    /** Per direction (0 = include, 1 = exclude): the earliest rule matching each value. */
+    private final List<Map<String, Rule>> extensions = List.of(new HashMap<>(), new HashMap<>());
+    private final List<Map<String, Rule>> mimeTypes = List.of(new HashMap<>(), new HashMap<>());
+    private final List<List<Map.Entry<String, Rule>>> mimePrefixes = List.of(new ArrayList<>(), new ArrayList<>());
+    private final Rule[][] statuses = new Rule[2][600];
+    private final Rule[] hashed = new Rule[2];
+    private final Rule[] outOfScope = new Rule[2];
+    private final Pattern[] paths = new Pattern[2];
+    private final List<List<Rule>> pathRules = List.of(new ArrayList<>(), new ArrayList<>());
+    private final boolean needsResponse;
+    private final ThreadLocal<Matcher[]> pathMatchers;
+
+    private FilterChain(String source) {
+        this.source = source;
+        String[] lines = source.split("\\R");
+        List<List<String>> globs = List.of(new ArrayList<>(), new ArrayList<>());
+        for (int n = 0; n < lines.length; n++) {
+            int lineNumber = n + 1;
+            String line = lines[n].trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] words = line.split("\\s+");
+            if (words.length < 2 || !(words[0].equalsIgnoreCase("include") || words[0].equalsIgnoreCase("exclude"))) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected include|exclude <kind> [values]");
+            }
+            boolean include = words[0].equalsIgnoreCase("include");
+            int side = include ? 0 : 1;
+            Kind kind = kind(words[1], lineNumber);
+            Rule rule = new Rule(rules.size(), include, line);
+            rules.add(rule);
+            List<String> values = Arrays.asList(words).subList(2, words.length);
+            if (values.isEmpty() && kind != Kind.HASHED && kind != Kind.OUT_OF_SCOPE) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + words[1] + " needs at least one value");
+            }
+            switch (kind) {
+                case EXT -> values.forEach(v -> extensions.get(side).putIfAbsent(stripDot(v).toLowerCase(Locale.ROOT), rule));
+                case MIME -> values.forEach(v -> {
+                    String name = v.toUpperCase(Locale.ROOT);
+                    if (name.endsWith("*")) {
+                        mimePrefixes.get(side).add(Map.entry(name.substring(0, name.length() - 1), rule));
+                    } else {
+                        mimeTypes.get(side).putIfAbsent(name, rule);
+                    }
+                });
+                case HASHED -> first(hashed, side, rule);
+                case OUT_OF_SCOPE -> first(outOfScope, side, rule);
+                case STATUS -> values.forEach(v -> addStatus(statuses[side], v, rule, lineNumber));
+                case PATH -> values.forEach(v -> {
+                    globs.get(side).add(globToRegex(v));
+                    pathRules.get(side).add(rule);
+                });
+            }
+        }
+        for (int side = 0; side < 2; side++) {
+            if (!globs.get(side).isEmpty()) {
+                paths[side] = Pattern.compile("(" + String.join(")|(", globs.get(side)) + ")");
+            }
+        }
+        this.needsResponse = !mimeTypes.get(0).isEmpty() || !mimeTypes.get(1).isEmpty()
+            || !mimePrefixes.get(0).isEmpty() || !mimePrefixes.get(1).isEmpty() || hasStatusRules();
+        this.pathMatchers = ThreadLocal.withInitial(() -> new Matcher[] {
+            paths[0] == null ? null : paths[0].matcher(""),
+            paths[1] == null ? null : paths[1].matcher("")
+        });
+    }
+
+    /**
+     * Compiles rules.
+     *
+     * @param rules The rule text, one rule per line; blank lines and lines starting with '#' are ignored
+     * @return The compiled chain
+     * @throws IllegalArgumentException if a line is not a valid rule, naming the line
+     */
+    public static FilterChain parse(String rules) {
+        return new FilterChain(rules);
+    }
+
+    /**
+     * Compiles {@link #DEFAULT_RULES}.
+     *
+     * @return The default chain
+     */
+    public static FilterChain defaults() {
+        return new FilterChain(DEFAULT_RULES);
+    }
+
+    /**
+     * Returns the rule text this chain was compiled from.
+     *
+     * @return The rules, as given to {@link #parse(String)}
+     */
+    public String text() {
+        return source;
+    }
+
+    /**
+     * Decides whether an entry is kept and counts the deciding rule.
+     *
+     * @param request The request
+     * @param path    The raw path of the request URL
+     * @return true if the entry is kept
+     */
+    public boolean accepts(RequestSample request, String path) {
+        String mime = null;
+        int status = 0;
+        if (needsResponse) {
+            mime = request.responseMimeType();
+            status = request.responseStatus();
+        }
+        String extension = null;
+        boolean isHashed = false;
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        if (dot > slash + 1) {
+            extension = path.substring(dot + 1).toLowerCase(Locale.ROOT);
+            isHashed = (hashed[0] != null || hashed[1] != null) && isHashedBundle(path, slash + 1, dot, extension);
+        }
+
+        Rule include = match(0, request, path, extension, mime, status, isHashed);
+        if (include != null) {
+            include.count.increment();
+            return true;
+        }
+        Rule exclude = match(1, request, path, extension, mime, status, isHashed);
+        if (exclude != null) {
+            exclude.count.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns every rule with the number of entries it kept or dropped since
+     * the chain was compiled.
+     *
+     * @return One line per rule
+     */
+    public String countsSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (Rule rule : rules) {
+            sb.append(rule.text).append(": ").append(rule.count.sum())
+              .append(rule.include ? " kept" : " dropped").append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** Returns the earliest rule of one direction that matches, or null. */
+    private Rule match(int side, RequestSample request, String path, String extension, String mime, int status,
+                       boolean isHashed) {
+        Rule best = null;
+        if (extension != null) {
+            best = earlier(best, extensions.get(side).get(extension));
+        }
+        if (isHashed) {
+            best = earlier(best, hashed[side]);
+        }
+        if (mime != null) {
+            best = earlier(best, mimeTypes.get(side).get(mime));
+            for (Map.Entry<String, Rule> prefix : mimePrefixes.get(side)) {
+                if (mime.startsWith(prefix.getKey())) {
+                    best = earlier(best, prefix.getValue());
+                }
+            }
+        }
+        if (status > 0 && status < 600) {
+            best = earlier(best, statuses[side][status]);
+        }
+        if (paths[side] != null && (best == null || best.index > pathRules.get(side).get(0).index)) {
+            Matcher matcher = pathMatchers.get()[side].reset(path);
+            if (matcher.matches()) {
+                for (int g = 1; g <= matcher.groupCount(); g++) {
+                    if (matcher.group(g) != null) {
+                        best = earlier(best, pathRules.get(side).get(g - 1));
+                        break;
+                    }
+                }
+            }
+        }
+        // Scope checks can be costly, so they come last and only when they could still decide.
+        if (outOfScope[side] != null && (best == null || best.index > outOfScope[side].index) && !request.inScope()) {
+            best = outOfScope[side];
+        }
+        return best;
+    }
+
+    /**
+     * Returns whether a file name looks like a content-hashed bundle: a
+     * script, style sheet or source map whose name contains a run of at least
+     * 8 hex characters with a digit, or of 16 letters and digits with both.
+     */
+    static boolean isHashedBundle(String path, int nameStart, int extensionDot, String extension) {
+        if (!extension.equals("js") && !extension.equals("mjs") && !extension.equals("css") && !extension.equals("map")) {
+            return false;
+        }
+        int runStart = nameStart;
+        for (int i = nameStart; i <= extensionDot; i++) {
+            char c = i < extensionDot ? path.charAt(i) : '.';
+            if (c == '.' || c == '-' || c == '_' || c == '~') {
+                if (isHash(path, runStart, i)) {
+                    return true;
+                }
+                runStart = i + 1;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isHash(String s, int from, int to) {
+        int length = to - from;
+        if (length < MIN_HEX_HASH) {
+            return false;
+        }
+        boolean hex = true;
+        boolean digit = false;
+        boolean letter = false;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                letter = true;
+                hex &= (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+            } else {
+                return false;
+            }
+        }
+        return hex ? digit : length >= MIN_MIXED_HASH && digit && letter;
+    }
+
+    /**
+     * Maps a Content-Type, or a MIME name from a Burp XML export, to the
+     * Burp MimeType name used by {@code mime} rules, for entries that do not
+     * come from Burp itself.
+     *
+     * @param contentType The content type or name, e.g. {@code image/png} or {@code PNG}
+     * @return The MimeType name, e.g. {@code IMAGE_PNG}, or null if none was given
+     */
+    public static String mimeTypeName(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return null;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.contains("svg")) {
+            return "IMAGE_SVG_XML";
+        }
+        if (type.contains("png")) {
+            return "IMAGE_PNG";
+        }
+        if (type.contains("jpeg") || type.contains("jpg")) {
+            return "IMAGE_JPEG";
+        }
+        if (type.contains("gif")) {
+            return "IMAGE_GIF";
+        }
+        if (type.contains("bmp")) {
+            return "IMAGE_BMP";
+        }
+        if (type.contains("tiff")) {
+            return "IMAGE_TIFF";
+        }
+        if (type.startsWith("image")) {
+            return "IMAGE_UNKNOWN";
+        }
+        if (type.contains("woff2")) {
+            return "FONT_WOFF2";
+        }
+        if (type.contains("woff") || type.startsWith("font")) {
+            return "FONT_WOFF";
+        }
+        if (type.startsWith("audio") || type.equals("sound")) {
+            return "SOUND";
+        }
+        if (type.startsWith("video")) {
+            return "VIDEO";
+        }
+        if (type.contains("css")) {
+            return "CSS";
+        }
+        if (type.contains("script")) {
+            return "SCRIPT";
+        }
+        if (type.contains("json")) {
+            return "JSON";
+        }
+        if (type.contains("html")) {
+            return "HTML";
+        }
+        if (type.contains("xml")) {
+            return "XML";
+        }
+        if (type.startsWith("text")) {
+            return "PLAIN_TEXT";
+        }
+        return "APPLICATION_UNKNOWN";
+    }
+
+    private boolean hasStatusRules() {
+        for (Rule[] side : statuses) {
+            for (Rule rule : side) {
+                if (rule != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Rule earlier(Rule current, Rule candidate) {
+        return candidate != null && (current == null || candidate.index < current.index) ? candidate : current;
+    }
+
+    private static void first(Rule[] slots, int side, Rule rule) {
+        if (slots[side] == null) {
+            slots[side] = rule;
+        }
+    }
+
+    private static void addStatus(Rule[] table, String value, Rule rule, int line) {
+        String v = value.toLowerCase(Locale.ROOT);
+        try {
+            if (v.length() == 3 && v.endsWith("xx")) {
+                int base = Integer.parseInt(v.substring(0, 1)) * 100;
+                for (int code = base; code < base + 100 && code < table.length; code++) {
+                    if (table[code] == null) {
+                        table[code] = rule;
+                    }
+                }
+                return;
+            }
+            int code = Integer.parseInt(v);
+            if (table[code] == null) {
+                table[code] = rule;
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Line " + line + ": invalid status code " + value);
+        }
+    }
+
+    private static Kind kind(String word, int line) {
+        return switch (word.toLowerCase(Locale.ROOT)) {
+            case "ext" -> Kind.EXT;
+            case "mime" -> Kind.MIME;
+            case "hashed" -> Kind.HASHED;
+            case "out-of-scope" -> Kind.OUT_OF_SCOPE;
+            case "status" -> Kind.STATUS;
+            case "path" -> Kind.PATH;
+            default -> throw new IllegalArgumentException("Line " + line + ": unknown kind " + word);
+        };
+    }
+
+    private static String stripDot(String extension) {
+        return extension.startsWith(".") ? extension.substring(1) : extension;
+    }
+
+    /** Translates a glob to a regex without groups: '*' matches anything, '?' one character. */
+    private static String globToRegex(String glob) {
+        StringBuilder sb = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > literalStart) {
+                    sb.append(Pattern.quote(glob.substring(literalStart, i)));
+                }
+                sb.append(c == '*' ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < glob.length()) {
+            sb.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return sb.toString();
+    }
+}
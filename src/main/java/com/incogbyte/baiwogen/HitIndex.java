@@ -0,0 +1,202 @@
+package com.incogbyte.baiwogen;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * How often words turned out to exist on past targets.
+ * <p>
+ * Each word has a hit count and a miss count. Words are keyed by their last
+ * path segment, lowercased, so {@code /api/Admin/} and {@code admin} share
+ * what was learned about them whatever target it was learned on. The index
+ * is fed from Verify runs, from Intruder responses and from imported lists,
+ * and is saved to a gzip file so it survives extension reloads.
+ */
+public class HitIndex {
+    private static final int MAGIC = 0xBA1D_5702;
+    private static final int VERSION = 1;
+
+    private final Map<String, int[]> counts = new HashMap<>();
+    private final int maxWords;
+
+    /**
+     * Creates a new, empty HitIndex.
+     *
+     * @param maxWords The number of words kept; once full, only known words are updated
+     */
+    public HitIndex(int maxWords) {
+        this.maxWords = maxWords;
+    }
+
+    /**
+     * Records one request for a word.
+     *
+     * @param word The wordlist entry or URL path
+     * @param hit  Whether the target had it
+     */
+    public synchronized void record(String word, boolean hit) {
+        add(key(word), hit ? 1 : 0, hit ? 0 : 1);
+    }
+
+    /**
+     * Returns how often a word hit.
+     *
+     * @param word The wordlist entry
+     * @return The hit count
+     */
+    public synchronized int hits(String word) {
+        int[] c = counts.get(key(word));
+        return c == null ? 0 : c[0];
+    }
+
+    /**
+     * Returns how often a word was requested and missed.
+     *
+     * @param word The wordlist entry
+     * @return The miss count
+     */
+    public synchronized int misses(String word) {
+        int[] c = counts.get(key(word));
+        return c == null ? 0 : c[1];
+    }
+
+    public synchronized int size() {
+        return counts.size();
+    }
+
+    /**
+     * Adds hits from a text list: one word per line, optionally followed by
+     * whitespace and a hit count. Blank lines and lines starting with '#' are
+     * skipped, so plain wordlists of known-good entries import as one hit each.
+     *
+     * @param file The list to import
+     * @return The number of words imported
+     * @throws IOException if the file cannot be read
+     */
+    public int importList(Path file) throws IOException {
+        int imported = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+");
+                int hits = 1;
+                if (parts.length > 1) {
+                    try {
+                        hits = Math.max(1, Integer.parseInt(parts[parts.length - 1]));
+                    } catch (NumberFormatException e) {
+                        hits = 1;
+                    }
+                }
+                synchronized (this) {
+                    add(key(parts[0]), hits, 0);
+                }
+                imported++;
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Writes the index to a gzip file, replacing it atomically.
+     *
+     * @param file The target file
+     * @throws IOException if writing fails
+     */
+    public synchronized void save(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tmp)), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(counts.size());
+            for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue()[0]);
+                out.writeInt(entry.getValue()[1]);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads an index written by {@link #save(Path)}.
+     *
+     * @param file     The file to read
+     * @param maxWords The number of words kept
+     * @return The index, or an empty index if the file does not exist
+     * @throws IOException if the file is unreadable or not a hit index
+     */
+    public static HitIndex load(Path file, int maxWords) throws IOException {
+        HitIndex index = new HitIndex(maxWords);
+        if (!Files.exists(file)) {
+            return index;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file)), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a Baiwogen hit index: " + file);
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                index.add(in.readUTF(), in.readInt(), in.readInt());
+            }
+        }
+        return index;
+    }
+
+    private void add(String key, int hits, int misses) {
+        if (key.isEmpty()) {
+            return;
+        }
+        int[] c = counts.get(key);
+        if (c == null) {
+            if (counts.size() >= maxWords) {
+                return;
+            }
+            c = new int[2];
+            counts.put(key, c);
+        }
+        c[0] = saturatedAdd(c[0], hits);
+        c[1] = saturatedAdd(c[1], misses);
+    }
+
+    private static int saturatedAdd(int a, int b) {
+        long sum = (long) a + b;
+        return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    /**
+     * Reduces a word to its index key: the last non-empty path segment,
+     * without a query string, lowercased.
+     *
+     * @param word A wordlist entry or URL path
+     * @return The key, empty if the word has no segment
+     */
+    static String key(String word) {
+        int end = word.indexOf('?');
+        end = end < 0 ? word.length() : end;
+        while (end > 0 && word.charAt(end - 1) == '/') {
+            end--;
+        }
+        int start = word.lastIndexOf('/', end - 1) + 1;
+        return word.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+}
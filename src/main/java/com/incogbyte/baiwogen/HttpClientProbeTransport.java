@@ -0,0 +1,56 @@
+package com.incogbyte.baiwogen;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Probes with the JDK HTTP client, without Burp. Used outside the extension
+ * and against local stand-in servers.
+ */
+public class HttpClientProbeTransport implements ProbeTransport {
+    private final HttpClient client;
+    private final Duration timeout;
+    private final int maxBodyBytes;
+
+    /**
+     * Creates a new HttpClientProbeTransport.
+     *
+     * @param timeout      The connect and response timeout
+     * @param maxBodyBytes The number of body bytes kept for comparison
+     */
+    public HttpClientProbeTransport(Duration timeout, int maxBodyBytes) {
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(timeout)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+        this.timeout = timeout;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public Response get(String url) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(timeout).GET().build();
+        try {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                byte[] prefix = body.readNBytes(maxBodyBytes);
+                long length = prefix.length;
+                // Count the rest without keeping it.
+                byte[] skip = new byte[8192];
+                int n;
+                while ((n = body.read(skip)) > 0) {
+                    length += n;
+                }
+                return new Response(response.statusCode(), length, prefix);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while requesting " + url, e);
+        }
+    }
+}
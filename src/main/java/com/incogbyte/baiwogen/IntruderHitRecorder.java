@@ -0,0 +1,173 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.core.ToolType;
+import burp.api.montoya.http.handler.HttpHandler;
+import burp.api.montoya.http.handler.HttpRequestToBeSent;
+import burp.api.montoya.http.handler.HttpResponseReceived;
+import burp.api.montoya.http.handler.RequestToBeSentAction;
+import burp.api.montoya.http.handler.ResponseReceivedAction;
+import burp.api.montoya.http.message.requests.HttpRequest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feeds Intruder results into the {@link HitIndex}.
+ * <p>
+ * The last path segment of each Intruder request counts as a hit when the
+ * response is 2xx, 3xx, 401 or 403, and as a miss when it is 404 or 410 or
+ * looks like the target's soft-404 page. Other statuses say nothing about
+ * whether the resource exists and are ignored.
+ * <p>
+ * Montoya does not say where an attack's payload goes, so requests are
+ * grouped into attacks by origin and parent directory, and a group is only
+ * recorded once its last segments differ. Attacks with the payload elsewhere,
+ * which repeat the same last segment, are never recorded.
+ * <p>
+ * No requests are sent. The soft-404 page is taken from the attack's own
+ * responses: most words of a wordlist attack miss, so a response shape, in
+ * the {@link Prober}'s fingerprint terms, shared by more than half of the
+ * first results of a group is its not-found page. Those first results are
+ * held back until the group has enough of them, so groups smaller than that
+ * are never recorded.
+ */
+public class IntruderHitRecorder implements HttpHandler {
+    private static final int MAX_ATTACKS = 1024;
+    private static final int BASELINE_RESULTS = 10;
+
+    private final HitIndex hits;
+    private final int maxBodyBytes;
+    private final Map<String, Attack> attacks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Attack> eldest) {
+            return size() > MAX_ATTACKS;
+        }
+    };
+
+    /**
+     * Creates a new IntruderHitRecorder.
+     *
+     * @param hits         The index to record into
+     * @param maxBodyBytes The number of response body bytes compared between responses
+     */
+    public IntruderHitRecorder(HitIndex hits, int maxBodyBytes) {
+        this.hits = hits;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public RequestToBeSentAction handleHttpRequestToBeSent(HttpRequestToBeSent requestToBeSent) {
+        return RequestToBeSentAction.continueWith(requestToBeSent);
+    }
+
+    @Override
+    public ResponseReceivedAction handleHttpResponseReceived(HttpResponseReceived responseReceived) {
+        int status = responseReceived.statusCode();
+        boolean telling = status == 404 || status == 410
+            || (status >= 200 && status < 400) || status == 401 || status == 403;
+        if (telling && responseReceived.toolSource().isFromTool(ToolType.INTRUDER)) {
+            HttpRequest request = responseReceived.initiatingRequest();
+            String path = request.pathWithoutQuery();
+            String segment = HitIndex.key(path);
+            if (!segment.isEmpty()) {
+                ByteArray body = responseReceived.body();
+                int length = body.length();
+                byte[] prefix = length == 0
+                    ? new byte[0]
+                    : body.subArray(0, Math.min(length, maxBodyBytes)).getBytes();
+                observe(SessionRegistry.keyFor(request.url()) + parent(path), segment,
+                    new ProbeTransport.Response(status, length, prefix));
+            }
+        }
+        return ResponseReceivedAction.continueWith(responseReceived);
+    }
+
+    private synchronized void observe(String group, String segment, ProbeTransport.Response response) {
+        Result result = new Result(segment, response);
+        Attack attack = attacks.get(group);
+        if (attack == null) {
+            attacks.put(group, new Attack(result));
+            return;
+        }
+        if (attack.notFound == null && attack.held.size() == 1 && attack.held.get(0).segment.equals(segment)) {
+            // The same last segment again: the payload is not there, at least so far.
+            return;
+        }
+        if (attack.notFound != null) {
+            record(result, attack.notFound);
+            return;
+        }
+        attack.held.add(result);
+        if (attack.held.size() >= BASELINE_RESULTS) {
+            attack.notFound = dominant(attack.held);
+            for (Result held : attack.held) {
+                record(held, attack.notFound);
+            }
+            attack.held = null;
+        }
+    }
+
+    private void record(Result result, List<Prober.Fingerprint> notFound) {
+        hits.record(result.segment, Prober.isLive(result.response, notFound));
+    }
+
+    /** Returns the fingerprints matched by more than half of the results, other than plain 404s and 410s. */
+    private static List<Prober.Fingerprint> dominant(List<Result> results) {
+        List<Prober.Fingerprint> fingerprints = new ArrayList<>(results.size());
+        for (Result result : results) {
+            fingerprints.add(new Prober.Fingerprint(result.response));
+        }
+        List<Prober.Fingerprint> out = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            int status = results.get(i).response.status();
+            if (status == 404 || status == 410 || !Prober.isLive(results.get(i).response, out)) {
+                continue;
+            }
+            int matching = 0;
+            for (Prober.Fingerprint other : fingerprints) {
+                if (fingerprints.get(i).matches(other)) {
+                    matching++;
+                }
+            }
+            if (matching * 2 > results.size()) {
+                out.add(fingerprints.get(i));
+            }
+        }
+        return out;
+    }
+
+    /** The directory part of a path, ending in '/'. */
+    private static String parent(String path) {
+        int end = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(0, path.lastIndexOf('/', end - 1) + 1);
+    }
+
+    private static final class Result {
+        private final String segment;
+        private final ProbeTransport.Response response;
+
+        private Result(String segment, ProbeTransport.Response response) {
+            this.segment = segment;
+            this.response = response;
+        }
+    }
+
+    /**
+     * Requests sharing an origin and parent directory. Results are held
+     * until the not-found fingerprints can be taken from them.
+     */
+    private static final class Attack {
+        private List<Result> held = new ArrayList<>();
+        private List<Prober.Fingerprint> notFound;
+
+        private Attack(Result first) {
+            held.add(first);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.incogbyte.baiwogen;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs generation and refinement jobs off the Swing event thread.
+ * <p>
+ * Jobs are queued on a small fixed pool. Every job names a serialization key,
+ * usually the conversation it works on, and jobs sharing a key never run at
+ * the same time, so a conversation is only ever touched by one thread. Each
+ * key has its own queue and only its head is handed to the pool; the next job
+ * is dispatched when the previous one finishes, so a waiting job never holds
+ * a pool thread.
+ * Jobs can be cancelled individually or all at once, and report progress
+ * through a {@link Listener}.
+ */
+public class JobScheduler {
+
+    /**
+     * A unit of work run by the scheduler.
+     */
+    public interface Job {
+        void run(JobContext context) throws Exception;
+    }
+
+    /**
+     * Receives job progress and queue-size changes.
+     */
+    public interface Listener {
+        void onProgress(String jobName, String message);
+
+        void onJobsChanged(int active);
+    }
+
+    /**
+     * Handed to a running job to report progress and check for cancellation.
+     */
+    public final class JobContext {
+        private final String name;
+
+        private JobContext(String name) {
+            this.name = name;
+        }
+
+        public void progress(String message) {
+            listener.onProgress(name, message);
+        }
+
+        public boolean isCancelled() {
+            return Thread.currentThread().isInterrupted();
+        }
+
+        /**
+         * Throws if the job has been cancelled, so long jobs can stop between steps.
+         */
+        public void checkCancelled() {
+            if (isCancelled()) {
+                throw new CancellationException(name + " cancelled");
+            }
+        }
+    }
+
+    private final ExecutorService executor;
+    private final LogSink logging;
+    private final Listener listener;
+    private final Map<Object, ArrayDeque<Handle>> queues = new HashMap<>();
+    private final Set<Handle> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * Creates a new JobScheduler.
+     *
+     * @param threads  The number of jobs that may run at once
+     * @param logging  The logging instance for error reporting
+     * @param listener The progress listener
+     */
+    public JobScheduler(int threads, LogSink logging, Listener listener) {
+        this.logging = logging;
+        this.listener = listener;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "baiwogen-job-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+    }
+
+    /**
+     * Queues a job.
+     *
+     * @param name      A short description shown in progress updates
+     * @param serialKey Jobs with an equal key run one at a time
+     * @param job       The work to run
+     */
+    public void submit(String name, Object serialKey, Job job) {
+        Handle handle = new Handle(name, serialKey, job);
+        pending.add(handle);
+        listener.onJobsChanged(active.incrementAndGet());
+        synchronized (queues) {
+            ArrayDeque<Handle> queue = queues.computeIfAbsent(serialKey, k -> new ArrayDeque<>());
+            queue.add(handle);
+            if (queue.size() == 1) {
+                handle.future = executor.submit(handle);
+            }
+        }
+    }
+
+    /**
+     * Cancels every queued or running job. Queued jobs never start; running
+     * jobs are interrupted and their results discarded.
+     */
+    public void cancelAll() {
+        for (Handle handle : pending) {
+            handle.cancel();
+        }
+    }
+
+    /**
+     * Stops the scheduler, interrupting running jobs.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Removes a finished job from its key's queue and dispatches the next one
+     * if the finished job was the one holding the key.
+     */
+    private void release(Handle handle) {
+        synchronized (queues) {
+            ArrayDeque<Handle> queue = queues.get(handle.serialKey);
+            if (queue == null) {
+                return;
+            }
+            boolean head = queue.peek() == handle;
+            queue.remove(handle);
+            if (queue.isEmpty()) {
+                queues.remove(handle.serialKey);
+            } else if (head) {
+                Handle next = queue.peek();
+                next.future = executor.submit(next);
+            }
+        }
+    }
+
+    private final class Handle implements Runnable {
+        private final String name;
+        private final Object serialKey;
+        private final Job job;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile Future<?> future;
+
+        private Handle(String name, Object serialKey, Job job) {
+            this.name = name;
+            this.serialKey = serialKey;
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            // A job cancelled while queued has already been claimed by cancel().
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                job.run(new JobContext(name));
+            } catch (InterruptedException | CancellationException e) {
+                listener.onProgress(name, name + " cancelled.");
+            } catch (Exception e) {
+                logging.logToError(name + " failed: " + e.getMessage());
+                listener.onProgress(name, "Error: " + e.getMessage());
+            } finally {
+                finish();
+            }
+        }
+
+        private void cancel() {
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(true);
+            }
+            // A job cancelled before it started never runs its body, so account for it here.
+            if (started.compareAndSet(false, true)) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            if (finished.compareAndSet(false, true)) {
+                pending.remove(this);
+                release(this);
+                listener.onJobsChanged(active.decrementAndGet());
+            }
+        }
+    }
+}
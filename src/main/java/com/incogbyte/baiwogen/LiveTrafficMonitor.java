@@ -0,0 +1,204 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.core.ToolType;
+import burp.api.montoya.http.handler.HttpHandler;
+import burp.api.montoya.http.handler.HttpRequestToBeSent;
+import burp.api.montoya.http.handler.HttpResponseReceived;
+import burp.api.montoya.http.handler.RequestToBeSentAction;
+import burp.api.montoya.http.handler.ResponseReceivedAction;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.logging.Logging;
+import burp.api.montoya.scope.Scope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Opt-in passive mode: watches in-scope traffic for endpoints that were never
+ * sent to the AI before and hands them over in small batches.
+ * <p>
+ * Only Proxy traffic is observed, and 404 and 410 responses are ignored, so
+ * fuzzing with a generated list through Intruder never turns its misses into
+ * prompts. Responses are converted with the same {@link PayloadExtractor} as
+ * manual generation and de-duplicated by method, host and endpoint template,
+ * so repeated requests to {@code /users/1}, {@code /users/2} count once. New
+ * endpoints are collected per session and flushed when a batch is full or
+ * the time window elapses, whichever comes first.
+ * <p>
+ * The HTTP handler only filters and enqueues a {@link RequestSnapshot} on a
+ * bounded queue, dropping it when the queue is full; one background thread
+ * drains the queue. The set of seen endpoints forgets the oldest ones once
+ * full, so neither grows with the amount of traffic.
+ */
+public class LiveTrafficMonitor implements HttpHandler {
+    private static final int MAX_QUEUED = 1024;
+    private static final int MAX_SEEN = 100_000;
+    private static final long DRAIN_MILLIS = 250;
+
+    private final Scope scope;
+    private final PayloadExtractor extractor;
+    private final Logging logging;
+    private final int maxBatch;
+    private final BiConsumer<String, List<Map<String, Object>>> sink;
+    private final Set<String> seen = Collections.newSetFromMap(Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > MAX_SEEN;
+            }
+        }));
+    private final BlockingQueue<RequestSnapshot> queue = new ArrayBlockingQueue<>(MAX_QUEUED);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Map<String, List<Map<String, Object>>> pending = new LinkedHashMap<>();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "baiwogen-live");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile boolean enabled;
+
+    /**
+     * Creates a new, disabled, LiveTrafficMonitor.
+     *
+     * @param scope        The Burp scope; only in-scope traffic is observed
+     * @param extractor    Converts observed traffic into payloads
+     * @param logging      The logging instance
+     * @param maxBatch     The number of new endpoints that triggers an early flush
+     * @param windowMillis The maximum time new endpoints wait before being flushed
+     * @param sink         Receives the session key and the new payloads of each flush
+     */
+    public LiveTrafficMonitor(Scope scope, PayloadExtractor extractor, Logging logging, int maxBatch,
+                              long windowMillis, BiConsumer<String, List<Map<String, Object>>> sink) {
+        this.scope = scope;
+        this.extractor = extractor;
+        this.logging = logging;
+        this.maxBatch = maxBatch;
+        this.sink = sink;
+        worker.scheduleWithFixedDelay(this::drain, DRAIN_MILLIS, DRAIN_MILLIS, TimeUnit.MILLISECONDS);
+        worker.scheduleWithFixedDelay(this::flushAll, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Turns passive mode on or off. Turning it off drops endpoints that were not flushed yet.
+     *
+     * @param enabled true to observe traffic
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            queue.clear();
+            synchronized (pending) {
+                pending.clear();
+            }
+        }
+        logging.logToOutput("Passive mode " + (enabled ? "enabled" : "disabled"));
+    }
+
+    /**
+     * Records endpoints as already known, e.g. after they were sent through manual generation.
+     *
+     * @param payloads Payloads as built by {@link PayloadExtractor}
+     */
+    public void markSeen(Collection<Map<String, Object>> payloads) {
+        for (Map<String, Object> payload : payloads) {
+            seen.add(endpointKey(payload));
+        }
+    }
+
+    /**
+     * Stops the background thread.
+     */
+    public void shutdown() {
+        enabled = false;
+        worker.shutdownNow();
+    }
+
+    @Override
+    public RequestToBeSentAction handleHttpRequestToBeSent(HttpRequestToBeSent requestToBeSent) {
+        return RequestToBeSentAction.continueWith(requestToBeSent);
+    }
+
+    @Override
+    public ResponseReceivedAction handleHttpResponseReceived(HttpResponseReceived responseReceived) {
+        int status = responseReceived.statusCode();
+        if (enabled && responseReceived.toolSource().isFromTool(ToolType.PROXY) && status != 404 && status != 410
+                && scope.isInScope(responseReceived.initiatingRequest().url())) {
+            RequestSnapshot snapshot = RequestSnapshot.of(new MontoyaRequestSample(HttpRequestResponse.httpRequestResponse(
+                responseReceived.initiatingRequest(), responseReceived)), PayloadExtractor.MAX_BODY_BYTES);
+            if (!queue.offer(snapshot)) {
+                dropped.incrementAndGet();
+            }
+        }
+        return ResponseReceivedAction.continueWith(responseReceived);
+    }
+
+    private void drain() {
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            logging.logToOutput("Passive mode: dropped " + lost + " responses while the queue was full");
+        }
+        RequestSnapshot snapshot;
+        while ((snapshot = queue.poll()) != null) {
+            observe(snapshot);
+        }
+    }
+
+    private void observe(RequestSnapshot snapshot) {
+        if (!enabled) {
+            return;
+        }
+        String sessionKey = SessionRegistry.keyFor(snapshot.url());
+        Map<String, Object> payload = extractor.buildPayload(snapshot);
+        if (payload == null || !seen.add(endpointKey(payload))) {
+            return;
+        }
+        List<Map<String, Object>> batch;
+        synchronized (pending) {
+            List<Map<String, Object>> list = pending.computeIfAbsent(sessionKey, k -> new ArrayList<>());
+            list.add(payload);
+            if (list.size() < maxBatch) {
+                return;
+            }
+            batch = pending.remove(sessionKey);
+        }
+        deliver(sessionKey, batch);
+    }
+
+    private void flushAll() {
+        Map<String, List<Map<String, Object>>> batches;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batches = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        batches.forEach(this::deliver);
+    }
+
+    private void deliver(String sessionKey, List<Map<String, Object>> batch) {
+        logging.logToOutput("Passive mode: " + batch.size() + " new endpoints on " + sessionKey);
+        try {
+            sink.accept(sessionKey, batch);
+        } catch (RuntimeException e) {
+            logging.logToError("Passive mode flush failed: " + e.getMessage());
+        }
+    }
+
+    private static String endpointKey(Map<String, Object> payload) {
+        return payload.get("method") + " " + payload.get("host")
+            + EndpointTemplater.normalizePath((String) payload.get("path"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.incogbyte.baiwogen;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A deterministic stand-in for the AI that needs no service and no credits.
+ * <p>
+ * It reads the endpoint payloads from the user messages and answers with
+ * words derived from them: every directory level of the observed paths,
+ * the file names, a few fixed neighbours of each resource, and the query,
+ * body and mined parameter names. The same conversation always gets the same
+ * answer, so the rest of the pipeline can be exercised and compared offline.
+ * Enable it with {@code -Dbaiwogen.backend=local}.
+ */
+public class LocalAiBackend implements AiBackend {
+    private static final Pattern PATH = Pattern.compile("\"path\"\\s*:\\s*\"([^\"\\\\]+)\"");
+    private static final Pattern PARAM_OBJECT = Pattern.compile("\"(?:queryParams|bodyParams)\"\\s*:\\s*\\{([^}]*)}");
+    private static final Pattern NAME_LIST = Pattern.compile(
+        "\"(?:bodyFields|jsonKeys|params|paths)\"\\s*:\\s*\\[((?:\\s*\"[^\"\\\\]*\"\\s*,?)*)");
+    private static final Pattern OBJECT_KEY = Pattern.compile("\"([^\"\\\\]+)\"\\s*:");
+    private static final Pattern STRING = Pattern.compile("\"([^\"\\\\]+)\"");
+    private static final String[] NEIGHBOURS = {"admin", "internal", "debug", "export", "backup"};
+
+    @Override
+    public String execute(double temperature, List<Message> messages) {
+        WordlistResult result = new WordlistResult();
+        for (Message message : messages) {
+            if (message.role() == ConversationContext.Role.USER) {
+                derive(message.content(), result);
+            }
+        }
+        return result.toJson();
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    private static void derive(String text, WordlistResult result) {
+        Matcher path = PATH.matcher(text);
+        while (path.find()) {
+            addPath(path.group(1), result);
+        }
+        Matcher object = PARAM_OBJECT.matcher(text);
+        while (object.find()) {
+            Matcher key = OBJECT_KEY.matcher(object.group(1));
+            while (key.find()) {
+                result.add(WordlistResult.PARAMS, key.group(1));
+            }
+        }
+        Matcher list = NAME_LIST.matcher(text);
+        while (list.find()) {
+            Matcher name = STRING.matcher(list.group(1));
+            while (name.find()) {
+                String value = name.group(1);
+                if (value.startsWith("/")) {
+                    addPath(value, result);
+                } else {
+                    // Key paths such as "items[].id" and "file (file)" contribute their last plain name.
+                    String leaf = value.replace(" (file)", "").replace("[]", "");
+                    result.add(WordlistResult.PARAMS, leaf.substring(leaf.lastIndexOf('.') + 1));
+                }
+            }
+        }
+    }
+
+    /** Adds every directory level of a path, its file name, and fixed neighbours of its last resource. */
+    private static void addPath(String path, WordlistResult result) {
+        StringBuilder prefix = new StringBuilder();
+        String resource = null;
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty() || segment.startsWith("{")) {
+                continue;
+            }
+            if (segment.indexOf('.') > 0) {
+                result.add(WordlistResult.FILES, segment);
+                break;
+            }
+            prefix.append('/').append(segment);
+            result.add(WordlistResult.PATHS, prefix.toString());
+            resource = segment;
+        }
+        if (resource != null && !resource.toLowerCase(Locale.ROOT).matches("v\\d+|api")) {
+            for (String neighbour : NEIGHBOURS) {
+                if (!neighbour.equals(resource)) {
+                    result.add(WordlistResult.PATHS, prefix + "/" + neighbour);
+                }
+            }
+            result.add(WordlistResult.FILES, resource + ".json");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.incogbyte.baiwogen;
+
+/**
+ * Where the generation pipeline reports progress and errors. Inside Burp it
+ * forwards to the extension's Montoya log; the headless {@link BatchMain}
+ * prints to the console. It carries no Montoya types, so the pipeline
+ * classes that use it also load without Burp.
+ */
+public interface LogSink {
+
+    void logToOutput(String message);
+
+    void logToError(String message);
+}
@@ -0,0 +1,70 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.ai.chat.Prompt;
+import burp.api.montoya.ai.chat.PromptException;
+import burp.api.montoya.ai.chat.PromptOptions;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The Burp AI, through the Montoya {@link Prompt} API.
+ */
+public class MontoyaAiBackend implements AiBackend {
+    /**
+     * Phrases of error messages that mean the prompt may succeed later. Any
+     * other error, including a bare "limit" such as a context or size limit,
+     * is treated as fatal.
+     */
+    private static final String[] RETRYABLE_HINTS = {
+        "rate limit", "rate-limit", "429", "too many requests", "overloaded", "temporarily unavailable"
+    };
+
+    private final Prompt prompt;
+
+    /**
+     * Creates a new MontoyaAiBackend.
+     *
+     * @param prompt The Burp AI prompt instance
+     */
+    public MontoyaAiBackend(Prompt prompt) {
+        this.prompt = prompt;
+    }
+
+    @Override
+    public String execute(double temperature, List<Message> messages) {
+        // The Montoya type is spelled out: inside this class "Message" is AiBackend.Message.
+        burp.api.montoya.ai.chat.Message[] converted = new burp.api.montoya.ai.chat.Message[messages.size()];
+        for (int i = 0; i < converted.length; i++) {
+            Message message = messages.get(i);
+            switch (message.role()) {
+                case SYSTEM -> converted[i] = burp.api.montoya.ai.chat.Message.systemMessage(message.content());
+                case USER -> converted[i] = burp.api.montoya.ai.chat.Message.userMessage(message.content());
+                default -> converted[i] = burp.api.montoya.ai.chat.Message.assistantMessage(message.content());
+            }
+        }
+        try {
+            return prompt.execute(PromptOptions.promptOptions().withTemperature(temperature), converted).content();
+        } catch (PromptException e) {
+            throw new AiBackendException(e.getMessage(), isRetryable(e.getMessage()), e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "Burp AI";
+    }
+
+    private static boolean isRetryable(String message) {
+        if (message == null) {
+            return false;
+        }
+        String lower = message.toLowerCase(Locale.ROOT);
+        for (String hint : RETRYABLE_HINTS) {
+            if (lower.contains(hint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
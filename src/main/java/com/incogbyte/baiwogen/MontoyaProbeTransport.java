@@ -0,0 +1,42 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.http.Http;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.http.message.requests.HttpRequest;
+import burp.api.montoya.http.message.responses.HttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Probes through Burp's HTTP stack, so upstream proxies, session handling
+ * and TLS settings configured in Burp apply.
+ */
+public class MontoyaProbeTransport implements ProbeTransport {
+    private final Http http;
+    private final int maxBodyBytes;
+
+    /**
+     * Creates a new MontoyaProbeTransport.
+     *
+     * @param http         The Burp HTTP API
+     * @param maxBodyBytes The number of body bytes kept for comparison
+     */
+    public MontoyaProbeTransport(Http http, int maxBodyBytes) {
+        this.http = http;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    public Response get(String url) throws IOException {
+        HttpRequestResponse sent = http.sendRequest(HttpRequest.httpRequestFromUrl(url));
+        HttpResponse response = sent == null ? null : sent.response();
+        if (response == null) {
+            throw new IOException("No response from " + url);
+        }
+        ByteArray body = response.body();
+        int length = body.length();
+        byte[] prefix = length <= maxBodyBytes ? body.getBytes() : body.subArray(0, maxBodyBytes).getBytes();
+        return new Response(response.statusCode(), length, prefix);
+    }
+}
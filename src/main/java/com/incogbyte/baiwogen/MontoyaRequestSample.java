@@ -0,0 +1,93 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.http.message.requests.HttpRequest;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A Montoya request/response seen as a {@link RequestSample}. The response
+ * is only read when a filter rule asks for it.
+ */
+public final class MontoyaRequestSample implements RequestSample {
+    private final HttpRequestResponse item;
+    private final HttpRequest request;
+
+    /**
+     * Creates a new MontoyaRequestSample.
+     *
+     * @param item The request/response to read
+     */
+    public MontoyaRequestSample(HttpRequestResponse item) {
+        this.item = item;
+        this.request = item.request();
+    }
+
+    /**
+     * Returns a view of the requests of sitemap entries, without copying the list.
+     *
+     * @param items The sitemap entries
+     * @return The samples, in the same order
+     */
+    public static List<RequestSample> of(List<HttpRequestResponse> items) {
+        return new View(items);
+    }
+
+    @Override
+    public String url() {
+        return request.url();
+    }
+
+    @Override
+    public String method() {
+        return request.method();
+    }
+
+    @Override
+    public String header(String name) {
+        return request.headerValue(name);
+    }
+
+    @Override
+    public byte[] bodyPrefix(int maxBytes) {
+        ByteArray body = request.body();
+        int length = body.length();
+        return length > maxBytes ? body.subArray(0, maxBytes).getBytes() : body.getBytes();
+    }
+
+    @Override
+    public String responseMimeType() {
+        return item.hasResponse() ? item.response().mimeType().name() : null;
+    }
+
+    @Override
+    public int responseStatus() {
+        return item.hasResponse() ? item.response().statusCode() : 0;
+    }
+
+    @Override
+    public boolean inScope() {
+        return request.isInScope();
+    }
+
+    private static final class View extends AbstractList<RequestSample> implements RandomAccess {
+        private final List<HttpRequestResponse> items;
+
+        View(List<HttpRequestResponse> items) {
+            this.items = items;
+        }
+
+        @Override
+        public RequestSample get(int index) {
+            return new MontoyaRequestSample(items.get(index));
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.incogbyte.baiwogen;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Expands semantic seed words from the AI into their mechanical variants.
+ * <p>
+ * Case-style rewrites, backup suffixes, API versions and stack-specific
+ * extensions follow fixed rules, so they are generated here instead of being
+ * requested from the model. Expansion is lazy: each call returns an iterator
+ * that computes the variants of one seed at a time, starting with the seed
+ * itself and the style the application already uses.
+ */
+public class MutationEngine {
+
+    /**
+     * Naming conventions recognised in seed words.
+     */
+    public enum Convention { KEBAB, SNAKE, CAMEL, PASCAL, FLAT }
+
+    private static final String[] BACKUP_SUFFIXES = {".bak", ".old", "~", ".orig", ".backup"};
+    private static final Pattern VERSION_SEGMENT = Pattern.compile("v\\d+", Pattern.CASE_INSENSITIVE);
+
+    private final int maxVersion;
+
+    /**
+     * Creates a new MutationEngine.
+     *
+     * @param maxVersion The highest API version generated for paths (v1..vN)
+     */
+    public MutationEngine(int maxVersion) {
+        this.maxVersion = maxVersion;
+    }
+
+    /**
+     * Returns the naming convention used by most multi-word seeds.
+     *
+     * @param words The seed words
+     * @return The dominant convention, or {@link Convention#FLAT} if none is visible
+     */
+    public static Convention detect(Collection<String> words) {
+        Map<Convention, Integer> counts = new EnumMap<>(Convention.class);
+        for (String word : words) {
+            Convention c = conventionOf(baseName(lastSegment(word)));
+            if (c != Convention.FLAT) {
+                counts.merge(c, 1, Integer::sum);
+            }
+        }
+        Convention best = Convention.FLAT;
+        int bestCount = 0;
+        for (Map.Entry<Convention, Integer> e : counts.entrySet()) {
+            if (e.getValue() > bestCount) {
+                best = e.getKey();
+                bestCount = e.getValue();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the most common file extensions among the words, most frequent first.
+     *
+     * @param words The words to inspect, e.g. sitemap paths and file seeds
+     * @param max   The maximum number of extensions returned
+     * @return Extensions including the leading '.', e.g. ".php"
+     */
+    public static List<String> detectExtensions(Collection<String> words, int max) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String word : words) {
+            String name = lastSegment(word);
+            int dot = name.lastIndexOf('.');
+            if (dot > 0 && dot < name.length() - 1 && name.length() - dot <= 6) {
+                counts.merge(name.substring(dot).toLowerCase(Locale.ROOT), 1, Integer::sum);
+            }
+        }
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort((a, b) -> b.getValue() - a.getValue());
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < entries.size() && i < max; i++) {
+            out.add(entries.get(i).getKey());
+        }
+        return out;
+    }
+
+    /**
+     * Splits a word into lowercase tokens on separators and camel-case humps.
+     *
+     * @param word The word, e.g. "userSettings" or "user-settings"
+     * @return The tokens, e.g. [user, settings]
+     */
+    public static List<String> tokenize(String word) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c == '-' || c == '_' || c == ' ') {
+                flush(current, tokens);
+                continue;
+            }
+            if (Character.isUpperCase(c) && current.length() > 0
+                && (Character.isLowerCase(word.charAt(i - 1))
+                    || (i + 1 < word.length() && Character.isLowerCase(word.charAt(i + 1))))) {
+                flush(current, tokens);
+            }
+            current.append(Character.toLowerCase(c));
+        }
+        flush(current, tokens);
+        return tokens;
+    }
+
+    /**
+     * Joins tokens in a naming convention.
+     *
+     * @param tokens     Lowercase tokens
+     * @param convention The convention to format in
+     * @return The formatted word
+     */
+    public static String format(List<String> tokens, Convention convention) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < tokens.size(); i++) {
+            String t = tokens.get(i);
+            switch (convention) {
+                case KEBAB -> sb.append(i > 0 ? "-" : "").append(t);
+                case SNAKE -> sb.append(i > 0 ? "_" : "").append(t);
+                case CAMEL -> sb.append(i > 0 ? capitalize(t) : t);
+                case PASCAL -> sb.append(capitalize(t));
+                default -> sb.append(t);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Lazily expands path seeds with case-style variants of their last segment
+     * and versioned variants ({@code /api/users} to {@code /api/v1/users},
+     * {@code /api/v2/users} to {@code /api/v1/users}).
+     *
+     * @param seeds The path seeds
+     * @return An iterator over seeds and their variants
+     */
+    public Iterator<String> expandPaths(List<String> seeds) {
+        Convention preferred = detect(seeds);
+        return new ExpansionIterator(seeds, seed -> {
+            Set<String> out = new LinkedHashSet<>();
+            out.add(seed);
+            boolean directory = seed.length() > 1 && seed.endsWith("/");
+            String body = directory ? seed.substring(0, seed.length() - 1) : seed;
+            String trailer = directory ? "/" : "";
+            int slash = body.lastIndexOf('/');
+            String parent = body.substring(0, slash + 1);
+            String last = body.substring(slash + 1);
+            addCaseVariants(out, parent, last, trailer, preferred);
+            addVersionVariants(out, body, trailer);
+            return out;
+        });
+    }
+
+    /**
+     * Adds the versioned variants of a path: a segment that already is a
+     * version ({@code v2}) is replaced by each version, otherwise versions are
+     * inserted directly after an {@code api} root segment. Other paths get none.
+     */
+    private void addVersionVariants(Set<String> out, String body, String trailer) {
+        String[] segments = body.split("/", -1);
+        int root = segments.length > 1 && segments[0].isEmpty() ? 1 : 0;
+        for (int i = root; i < segments.length; i++) {
+            if (VERSION_SEGMENT.matcher(segments[i]).matches()) {
+                for (int v = 1; v <= maxVersion; v++) {
+                    segments[i] = "v" + v;
+                    out.add(String.join("/", segments) + trailer);
+                }
+                return;
+            }
+        }
+        if (root < segments.length && segments[root].equalsIgnoreCase("api")) {
+            String head = (root == 1 ? "/" : "") + segments[root];
+            String rest = body.substring(head.length());
+            for (int v = 1; v <= maxVersion; v++) {
+                out.add(head + "/v" + v + rest + trailer);
+            }
+        }
+    }
+
+    /**
+     * Lazily expands file seeds with case-style variants, backup suffixes and,
+     * for names without an extension, the given stack extensions.
+     *
+     * @param seeds           The file seeds
+     * @param stackExtensions Extensions of the target's stack, e.g. [".php"]
+     * @return An iterator over seeds and their variants
+     */
+    public Iterator<String> expandFiles(List<String> seeds, List<String> stackExtensions) {
+        Convention preferred = detect(seeds);
+        return new ExpansionIterator(seeds, seed -> {
+            Set<String> out = new LinkedHashSet<>();
+            out.add(seed);
+            int slash = seed.lastIndexOf('/');
+            String parent = seed.substring(0, slash + 1);
+            String name = seed.substring(slash + 1);
+            String base = baseName(name);
+            String ext = name.substring(base.length());
+
+            addCaseVariants(out, parent, base, ext, preferred);
+            if (ext.isEmpty() && !base.startsWith(".")) {
+                for (String stackExt : stackExtensions) {
+                    out.add(parent + base + stackExt);
+                }
+            }
+            for (String suffix : BACKUP_SUFFIXES) {
+                out.add(seed + suffix);
+            }
+            return out;
+        });
+    }
+
+    /**
+     * Lazily expands parameter seeds with case-style variants.
+     *
+     * @param seeds The parameter seeds
+     * @return An iterator over seeds and their variants
+     */
+    public Iterator<String> expandParams(List<String> seeds) {
+        Convention preferred = detect(seeds);
+        return new ExpansionIterator(seeds, seed -> {
+            Set<String> out = new LinkedHashSet<>();
+            out.add(seed);
+            addCaseVariants(out, "", seed, "", preferred);
+            return out;
+        });
+    }
+
+    private static void addCaseVariants(Set<String> out, String parent, String word, String suffix, Convention preferred) {
+        List<String> tokens = tokenize(word);
+        if (tokens.size() < 2) {
+            return;
+        }
+        out.add(parent + format(tokens, preferred) + suffix);
+        for (Convention c : Convention.values()) {
+            if (c != Convention.FLAT) {
+                out.add(parent + format(tokens, c) + suffix);
+            }
+        }
+    }
+
+    private static Convention conventionOf(String word) {
+        if (word.indexOf('-') > 0) {
+            return Convention.KEBAB;
+        }
+        if (word.indexOf('_') > 0) {
+            return Convention.SNAKE;
+        }
+        boolean hasUpperAfterFirst = false;
+        for (int i = 1; i < word.length(); i++) {
+            if (Character.isUpperCase(word.charAt(i))) {
+                hasUpperAfterFirst = true;
+                break;
+            }
+        }
+        if (!hasUpperAfterFirst || word.isEmpty()) {
+            return Convention.FLAT;
+        }
+        return Character.isUpperCase(word.charAt(0)) ? Convention.PASCAL : Convention.CAMEL;
+    }
+
+    private static String lastSegment(String word) {
+        String trimmed = word.endsWith("/") ? word.substring(0, word.length() - 1) : word;
+        return trimmed.substring(trimmed.lastIndexOf('/') + 1);
+    }
+
+    /** Strips the extension, keeping dot-files such as ".env" intact. */
+    private static String baseName(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String capitalize(String t) {
+        return t.isEmpty() ? t : Character.toUpperCase(t.charAt(0)) + t.substring(1);
+    }
+
+    private static void flush(StringBuilder current, List<String> tokens) {
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+            current.setLength(0);
+        }
+    }
+
+    /**
+     * Walks the seeds, expanding each one only when its variants are reached.
+     * Duplicates are removed within a seed's variants, not across seeds.
+     */
+    private static final class ExpansionIterator implements Iterator<String> {
+        private final Iterator<String> seeds;
+        private final Function<String, Collection<String>> variants;
+        private Iterator<String> current = Collections.emptyIterator();
+
+        private ExpansionIterator(List<String> seeds, Function<String, Collection<String>> variants) {
+            this.seeds = seeds.iterator();
+            this.variants = variants;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && seeds.hasNext()) {
+                current = variants.apply(seeds.next()).iterator();
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+}
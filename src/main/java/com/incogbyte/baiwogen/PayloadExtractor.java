@@ -0,0 +1,181 @@
+package com.incogbyte.baiwogen;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns recorded requests into the compact payload objects sent to the AI.
+ * <p>
+ * Extraction runs on a bounded fork-join pool so large sitemap subtrees are
+ * processed on all cores, and the per-item work avoids re-parsing the URL or
+ * recompiling patterns.
+ */
+public class PayloadExtractor {
+    static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final LogSink logging;
+    private final ForkJoinPool pool;
+    private volatile FilterChain filters = FilterChain.defaults();
+
+    /**
+     * Creates a new PayloadExtractor.
+     *
+     * @param logging     The logging instance for error reporting
+     * @param parallelism The maximum number of worker threads
+     */
+    public PayloadExtractor(LogSink logging, int parallelism) {
+        this.logging = logging;
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    /**
+     * Builds payloads for all items in parallel, preserving their order and
+     * dropping items that are filtered out or cannot be parsed.
+     *
+     * @param items The requests to convert
+     * @return The payload objects
+     */
+    public List<Map<String, Object>> extractAll(List<? extends RequestSample> items) {
+        Timing timing = new Timing();
+        long start = System.nanoTime();
+
+        List<Map<String, Object>> payloads;
+        try {
+            payloads = pool.submit(() -> items.parallelStream()
+                .map(request -> timing.time(request, this::buildPayload))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ArrayList<>();
+        } catch (ExecutionException e) {
+            logging.logToError("Payload extraction failed: " + e.getCause());
+            return new ArrayList<>();
+        }
+
+        logging.logToOutput(String.format(
+            "Extracted %d payloads from %d items in %d ms on %d threads (avg %d us/item, slowest %d us: %s)",
+            payloads.size(), items.size(), (System.nanoTime() - start) / 1_000_000, pool.getParallelism(),
+            timing.averageMicros(), timing.max.get() / 1_000, timing.slowestUrl));
+        return payloads;
+    }
+
+    /**
+     * Builds the payload object for a single request.
+     *
+     * @param request The request
+     * @return The payload, or null if the request is dropped by the filters or unparseable
+     */
+    public Map<String, Object> buildPayload(RequestSample request) {
+        try {
+            String rawUrl = request.url()
+                .replace("{", "%7B")
+                .replace("}", "%7D")
+                .replace(" ", "%20");
+
+            URI uri = new URI(rawUrl);
+
+            String path = uri.getRawPath();
+            if (path == null || !filters.accepts(request, path)) {
+                return null;
+            }
+
+            String query = uri.getRawQuery();
+            Map<String, String> params = new LinkedHashMap<>();
+            if (query != null) {
+                splitPairs(query, params);
+            }
+
+            Map<String, Object> obj = new LinkedHashMap<>();
+            obj.put("method", request.method());
+            obj.put("host", uri.getHost());
+            obj.put("path", path);
+            obj.put("queryParams", params);
+
+            String contentType = request.header("Content-Type");
+            if (contentType == null) {
+                contentType = "";
+            }
+            if (!BodySampler.isBinary(contentType)) {
+                byte[] prefix = request.bodyPrefix(MAX_BODY_BYTES);
+                if (prefix.length > 0) {
+                    BodySampler.sample(contentType, prefix, obj);
+                }
+            }
+
+            return obj;
+
+        } catch (Exception e) {
+            logging.logToError("Skipping URL: " + request.url() + " → " + e.getMessage());
+            return null;
+        }
+    }
+
+    public FilterChain filters() {
+        return filters;
+    }
+
+    /**
+     * Replaces the filter rules applied to every request.
+     *
+     * @param filters The compiled rules
+     */
+    public void setFilters(FilterChain filters) {
+        this.filters = filters;
+    }
+
+    /**
+     * Stops the worker pool.
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static void splitPairs(String encoded, Map<String, String> out) {
+        for (String kv : encoded.split("&")) {
+            int eq = kv.indexOf('=');
+            if (eq < 0) {
+                out.put(kv, "");
+            } else {
+                out.put(kv.substring(0, eq), kv.substring(eq + 1));
+            }
+        }
+    }
+
+    private static final class Timing {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        private volatile String slowestUrl = "-";
+
+        <T> T time(RequestSample request, Function<RequestSample, T> work) {
+            long start = System.nanoTime();
+            try {
+                return work.apply(request);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                count.increment();
+                total.add(elapsed);
+                if (elapsed > max.get()) {
+                    max.accumulate(elapsed);
+                    slowestUrl = request.url();
+                }
+            }
+        }
+
+        long averageMicros() {
+            long n = count.sum();
+            return n == 0 ? 0 : total.sum() / n / 1_000;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.incogbyte.baiwogen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * On-the-fly transforms applied to wordlist entries as Intruder pulls them.
+ * <p>
+ * Every entry yields {@link #variantCount()} payloads: the entry itself and one
+ * per configured extension, each with the case style applied and optionally
+ * prefixed with the sitemap path the wordlist was generated for. Settings
+ * are read when an attack starts, so changing them does not affect running attacks.
+ */
+public class PayloadTransforms {
+
+    public enum CaseStyle {
+        AS_IS("As generated"),
+        LOWER("lowercase"),
+        UPPER("UPPERCASE"),
+        CAPITALIZED("Capitalized");
+
+        private final String label;
+
+        CaseStyle(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final List<String> extensions;
+    private final CaseStyle caseStyle;
+    private final boolean prefixWithPath;
+
+    /**
+     * Creates a new set of transforms.
+     *
+     * @param extensions     Suffixes appended to produce extra variants, e.g. ".bak"
+     * @param caseStyle      The case style applied to every payload
+     * @param prefixWithPath Whether payloads are prefixed with the sitemap path
+     */
+    public PayloadTransforms(List<String> extensions, CaseStyle caseStyle, boolean prefixWithPath) {
+        this.extensions = List.copyOf(extensions);
+        this.caseStyle = caseStyle;
+        this.prefixWithPath = prefixWithPath;
+    }
+
+    /**
+     * Returns transforms that leave every entry unchanged.
+     *
+     * @return The identity transforms
+     */
+    public static PayloadTransforms none() {
+        return new PayloadTransforms(List.of(), CaseStyle.AS_IS, false);
+    }
+
+    /**
+     * Parses a comma-separated extension list such as {@code "bak, .old,~"}.
+     *
+     * @param text The user input
+     * @return The extensions, each starting with '.' unless it is '~'
+     */
+    public static List<String> parseExtensions(String text) {
+        List<String> out = new ArrayList<>();
+        for (String part : text.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            out.add(part.startsWith(".") || part.equals("~") ? part : "." + part);
+        }
+        return out;
+    }
+
+    public List<String> extensions() {
+        return extensions;
+    }
+
+    public CaseStyle caseStyle() {
+        return caseStyle;
+    }
+
+    public boolean prefixWithPath() {
+        return prefixWithPath;
+    }
+
+    /**
+     * Returns the number of payloads produced per entry.
+     *
+     * @return 1 plus the number of extensions
+     */
+    public int variantCount() {
+        return 1 + extensions.size();
+    }
+
+    /**
+     * Produces one variant of an entry.
+     *
+     * @param word    The wordlist entry
+     * @param variant The variant index, below {@link #variantCount()}
+     * @param path    The sitemap path the wordlist was generated for, e.g. {@code /api/}
+     * @return The payload
+     */
+    public String apply(String word, int variant, String path) {
+        String payload = applyCase(word);
+        if (variant > 0) {
+            payload = payload + extensions.get(variant - 1);
+        }
+        if (prefixWithPath && path != null && !path.isEmpty()) {
+            String base = path.endsWith("/") ? path : path + "/";
+            payload = base + (payload.startsWith("/") ? payload.substring(1) : payload);
+        }
+        return payload;
+    }
+
+    private String applyCase(String word) {
+        return switch (caseStyle) {
+            case LOWER -> word.toLowerCase(Locale.ROOT);
+            case UPPER -> word.toUpperCase(Locale.ROOT);
+            case CAPITALIZED -> word.isEmpty() ? word
+                : word.substring(0, 1).toUpperCase(Locale.ROOT) + word.substring(1);
+            default -> word;
+        };
+    }
+}
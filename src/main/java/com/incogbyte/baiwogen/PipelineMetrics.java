@@ -0,0 +1,229 @@
+package com.incogbyte.baiwogen;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Per-stage timings and counters of the wordlist pipeline.
+ * <p>
+ * Stages are timed individually so that a slow generation can be traced to
+ * the sitemap lookup, payload building, prompting or parsing, and counters
+ * track how many bytes and estimated tokens were sent, how often the cache
+ * answered and how many items were filtered or dropped by the payload
+ * budget. All methods are thread-safe; the listener is called after every
+ * update, on the updating thread.
+ */
+public class PipelineMetrics {
+
+    /**
+     * Timed pipeline stages.
+     */
+    public enum Stage {
+        LOOKUP("Sitemap lookup"),
+        EXTRACT("Payload build"),
+        TEMPLATE("Templating"),
+        MINE("Response mining"),
+        PROMPT("Prompt"),
+        PARSE("Parse"),
+        RANK("Ranking");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Counted quantities.
+     */
+    public enum Counter {
+        ITEMS_SCANNED("Items scanned"),
+        ITEMS_FILTERED("Items filtered"),
+        BUDGET_DROPPED("Dropped by budget"),
+        PROMPTS("Prompts sent"),
+        PAYLOAD_BYTES("Payload bytes"),
+        ESTIMATED_TOKENS("Estimated tokens"),
+        CACHE_HITS("Cache hits"),
+        CACHE_MISSES("Cache misses");
+
+        private final String label;
+
+        Counter(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private volatile Consumer<PipelineMetrics> listener = m -> { };
+    private volatile boolean debug;
+
+    /**
+     * Creates a new PipelineMetrics with all values at zero.
+     */
+    public PipelineMetrics() {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, new Timer());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    public void setListener(Consumer<PipelineMetrics> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets whether verbose output, such as sample payloads and raw AI
+     * responses, should be logged.
+     *
+     * @param debug true to log verbose output
+     */
+    public void setDebug(boolean debug) {
+        this.debug = debug;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    /**
+     * Runs and times a stage.
+     *
+     * @param stage The stage
+     * @param work  The work of the stage
+     * @param <T>   The result type
+     * @return The result of the work
+     */
+    public <T> T time(Stage stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records one run of a stage.
+     *
+     * @param stage The stage
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(Stage stage, long nanos) {
+        timers.get(stage).add(nanos);
+        listener.accept(this);
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param counter The counter
+     * @param delta   The amount to add
+     */
+    public void add(Counter counter, long delta) {
+        if (delta != 0) {
+            counters.get(counter).add(delta);
+            listener.accept(this);
+        }
+    }
+
+    /**
+     * Records a prompt about to be sent: its size and estimated tokens.
+     * Sizes are counted in characters, which matches bytes for the mostly
+     * ASCII payloads.
+     *
+     * @param chars The number of characters sent, including context
+     */
+    public void recordPromptSize(long chars) {
+        counters.get(Counter.PROMPTS).increment();
+        counters.get(Counter.PAYLOAD_BYTES).add(chars);
+        add(Counter.ESTIMATED_TOKENS, ConversationContext.estimateTokens(chars));
+    }
+
+    public long get(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    /**
+     * Sets all timings and counters back to zero.
+     */
+    public void reset() {
+        timers.values().forEach(Timer::reset);
+        counters.values().forEach(LongAdder::reset);
+        listener.accept(this);
+    }
+
+    /**
+     * Returns a one-line summary for the status bar.
+     *
+     * @return The summary
+     */
+    public String summary() {
+        Timer prompt = timers.get(Stage.PROMPT);
+        long hits = get(Counter.CACHE_HITS);
+        return String.format("Prompt %d ms · %s sent · ~%d tokens · cache %d/%d · dropped %d",
+            prompt.last.get() / 1_000_000, formatBytes(get(Counter.PAYLOAD_BYTES)),
+            get(Counter.ESTIMATED_TOKENS), hits, hits + get(Counter.CACHE_MISSES), get(Counter.BUDGET_DROPPED));
+    }
+
+    /**
+     * Returns all stages and counters as an HTML table, for a tooltip.
+     *
+     * @return The table
+     */
+    public String detailsHtml() {
+        StringBuilder sb = new StringBuilder("<html><table>");
+        sb.append("<tr><th align=left>Stage</th><th>Runs</th><th>Last ms</th><th>Avg ms</th><th>Max ms</th></tr>");
+        for (Stage stage : Stage.values()) {
+            Timer t = timers.get(stage);
+            long runs = t.count.sum();
+            sb.append("<tr><td>").append(stage.label).append("</td><td align=right>").append(runs)
+              .append("</td><td align=right>").append(t.last.get() / 1_000_000)
+              .append("</td><td align=right>").append(runs == 0 ? 0 : t.total.sum() / runs / 1_000_000)
+              .append("</td><td align=right>").append(t.max.get() / 1_000_000).append("</td></tr>");
+        }
+        for (Counter counter : Counter.values()) {
+            sb.append("<tr><td>").append(counter.label).append("</td><td align=right colspan=4>")
+              .append(get(counter)).append("</td></tr>");
+        }
+        return sb.append("</table></html>").toString();
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return (bytes / 1024) + " KB";
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong last = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void add(long nanos) {
+            count.increment();
+            total.add(nanos);
+            last.set(nanos);
+            max.accumulateAndGet(nanos, Math::max);
+        }
+
+        void reset() {
+            count.reset();
+            total.reset();
+            last.set(0);
+            max.set(0);
+        }
+    }
+}
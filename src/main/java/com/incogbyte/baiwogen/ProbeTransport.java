@@ -0,0 +1,54 @@
+package com.incogbyte.baiwogen;
+
+import java.io.IOException;
+
+/**
+ * Sends one GET request for the {@link Prober}. Implementations must be safe
+ * to call from several threads at once and must not follow redirects, so a
+ * redirect is reported as such rather than as its target.
+ */
+public interface ProbeTransport {
+
+    /**
+     * Requests a URL.
+     *
+     * @param url The absolute URL
+     * @return The response
+     * @throws IOException if no response was received
+     */
+    Response get(String url) throws IOException;
+
+    /**
+     * The parts of a response the prober compares.
+     */
+    final class Response {
+        private final int status;
+        private final long length;
+        private final byte[] bodyPrefix;
+
+        /**
+         * Creates a new Response.
+         *
+         * @param status     The HTTP status code
+         * @param length     The full body length in bytes
+         * @param bodyPrefix The first bytes of the body, used for similarity
+         */
+        public Response(int status, long length, byte[] bodyPrefix) {
+            this.status = status;
+            this.length = length;
+            this.bodyPrefix = bodyPrefix;
+        }
+
+        public int status() {
+            return status;
+        }
+
+        public long length() {
+            return length;
+        }
+
+        public byte[] bodyPrefix() {
+            return bodyPrefix;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.incogbyte.baiwogen;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies generated entries against the live target and keeps only the ones
+ * that answer with something other than "not found".
+ * <p>
+ * Before probing, the target's not-found behaviour is fingerprinted by
+ * requesting random names, one per shape (directory, and file for each
+ * extension among the candidates). A candidate whose response matches one of
+ * these fingerprints by status and either length or body simhash is a soft
+ * 404 and is pruned, as are plain 404 and 410 answers. Everything else,
+ * including 401, 403 and 5xx responses, is kept with its status code.
+ * <p>
+ * Concurrency adapts to the target: it grows by one after a full window of
+ * healthy responses and halves on 429, 503, timeouts or a sharp rise in
+ * latency, between one and the configured maximum.
+ */
+public class Prober {
+    private static final int SIMHASH_DISTANCE = 6;
+    private static final int MAX_BASELINE_EXTENSIONS = 8;
+    private static final int PROGRESS_EVERY = 50;
+    /** A response slower than the fastest one by this much, and by 4x, counts as a sign of overload. */
+    private static final long SLOW_MARGIN_NANOS = 100_000_000L;
+    /** Status recorded for entries whose request failed; they are kept, unverified. */
+    public static final int STATUS_ERROR = 0;
+
+    /**
+     * Receives progress while probing, from the worker threads.
+     */
+    public interface Listener {
+        void onProgress(int done, int total, int concurrency);
+    }
+
+    private final ProbeTransport transport;
+    private final int maxConcurrency;
+
+    /**
+     * Creates a new Prober.
+     *
+     * @param transport      The transport requests are sent with
+     * @param maxConcurrency The upper bound of requests in flight at once
+     */
+    public Prober(ProbeTransport transport, int maxConcurrency) {
+        this.transport = transport;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    /**
+     * Probes the candidates of every category.
+     *
+     * @param origin     The scheme and authority, e.g. {@code https://example.com}
+     * @param basePath   The directory relative entries are resolved against, e.g. {@code /api/}
+     * @param candidates Category name to entries; entries starting with "/" are absolute paths
+     * @param listener   Receives progress
+     * @return The entries kept, with their status codes, and the throughput figures
+     * @throws InterruptedException if the calling thread was interrupted; probing stops
+     */
+    public Report probe(String origin, String basePath, Map<String, List<String>> candidates, Listener listener)
+            throws InterruptedException {
+        String base = basePath.endsWith("/") ? basePath : basePath + "/";
+        List<String> categories = new ArrayList<>();
+        List<String> entries = new ArrayList<>();
+        for (Map.Entry<String, List<String>> category : candidates.entrySet()) {
+            for (String entry : category.getValue()) {
+                categories.add(category.getKey());
+                entries.add(entry);
+            }
+        }
+
+        long start = System.nanoTime();
+        List<Fingerprint> baseline = fingerprintNotFound(origin, base, entries);
+        int[] statuses = new int[entries.size()];
+        boolean[] keep = new boolean[entries.size()];
+        AdaptiveLimit limit = new AdaptiveLimit(1, maxConcurrency, Math.min(4, maxConcurrency));
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        ExecutorService workers = Executors.newFixedThreadPool(maxConcurrency, r -> {
+            Thread thread = new Thread(r, "baiwogen-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int w = 0; w < maxConcurrency; w++) {
+                workers.execute(() -> {
+                    try {
+                        while (!Thread.currentThread().isInterrupted()) {
+                            limit.acquire();
+                            int i = next.getAndIncrement();
+                            if (i >= entries.size()) {
+                                limit.release(0, false);
+                                return;
+                            }
+                            long sent = System.nanoTime();
+                            boolean throttled;
+                            try {
+                                ProbeTransport.Response response = transport.get(urlFor(origin, base, entries.get(i)));
+                                statuses[i] = response.status();
+                                keep[i] = isLive(response, baseline);
+                                throttled = response.status() == 429 || response.status() == 503;
+                            } catch (IOException | RuntimeException e) {
+                                statuses[i] = STATUS_ERROR;
+                                keep[i] = true;
+                                errors.incrementAndGet();
+                                throttled = true;
+                            }
+                            limit.release(System.nanoTime() - sent, throttled);
+                            int finished = done.incrementAndGet();
+                            if (finished % PROGRESS_EVERY == 0 || finished == entries.size()) {
+                                listener.onProgress(finished, entries.size(), limit.current());
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            workers.shutdown();
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Keep waiting; an interrupt of the calling thread ends the wait.
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Map<String, Map<String, Integer>> kept = new LinkedHashMap<>();
+        for (String category : candidates.keySet()) {
+            kept.put(category, new LinkedHashMap<>());
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            if (keep[i]) {
+                kept.get(categories.get(i)).put(entries.get(i), statuses[i]);
+            }
+        }
+        return new Report(kept, entries.size(), done.get() + baseline.size(), errors.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Requests random names shaped like the candidates and records how the
+     * target answers them.
+     */
+    private List<Fingerprint> fingerprintNotFound(String origin, String base, List<String> entries) {
+        Set<String> probes = new LinkedHashSet<>();
+        String random = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        probes.add(base + random);
+        probes.add(base + random + "/");
+        probes.add("/" + random + "x");
+        for (String entry : entries) {
+            String extension = extension(entry);
+            if (extension != null && probes.size() < 3 + MAX_BASELINE_EXTENSIONS) {
+                probes.add(base + random + extension);
+            }
+        }
+        List<Fingerprint> baseline = new ArrayList<>();
+        for (String path : probes) {
+            try {
+                ProbeTransport.Response response = transport.get(origin + path);
+                if (response.status() != 404 && response.status() != 410) {
+                    baseline.add(new Fingerprint(response));
+                }
+            } catch (IOException | RuntimeException e) {
+                // No baseline for this shape; plain status checks still apply.
+            }
+        }
+        return baseline;
+    }
+
+    static boolean isLive(ProbeTransport.Response response, List<Fingerprint> baseline) {
+        if (response.status() == 404 || response.status() == 410) {
+            return false;
+        }
+        Fingerprint fingerprint = new Fingerprint(response);
+        for (Fingerprint notFound : baseline) {
+            if (notFound.matches(fingerprint)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String urlFor(String origin, String base, String entry) {
+        if (entry.startsWith("/")) {
+            return origin + entry;
+        }
+        return origin + base + entry;
+    }
+
+    private static String extension(String entry) {
+        int slash = entry.lastIndexOf('/');
+        int dot = entry.lastIndexOf('.');
+        if (dot <= slash + 1 || entry.length() - dot > 6) {
+            return null;
+        }
+        return entry.substring(dot).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 64-bit simhash of the alphanumeric tokens of a body: similar pages,
+     * such as one error template with a different name reflected in it, land
+     * a few bits apart.
+     */
+    static long simhash(byte[] body) {
+        int[] weights = new int[64];
+        int i = 0;
+        while (i < body.length) {
+            while (i < body.length && !isTokenByte(body[i])) {
+                i++;
+            }
+            if (i >= body.length) {
+                break;
+            }
+            long hash = 0xcbf29ce484222325L;
+            while (i < body.length && isTokenByte(body[i])) {
+                hash = (hash ^ (body[i++] & 0xff)) * 0x100000001b3L;
+            }
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((hash >>> bit) & 1) == 1 ? 1 : -1;
+            }
+        }
+        long simhash = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                simhash |= 1L << bit;
+            }
+        }
+        return simhash;
+    }
+
+    private static boolean isTokenByte(byte b) {
+        return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || b < 0;
+    }
+
+    static final class Fingerprint {
+        private final int status;
+        private final long length;
+        private final long simhash;
+
+        Fingerprint(ProbeTransport.Response response) {
+            this.status = response.status();
+            this.length = response.length();
+            this.simhash = simhash(response.bodyPrefix());
+        }
+
+        /** Same status, and a length within 2% (at least 32 bytes) or a near-identical body. */
+        boolean matches(Fingerprint other) {
+            if (status != other.status) {
+                return false;
+            }
+            long tolerance = Math.max(32, length / 50);
+            return Math.abs(length - other.length) <= tolerance
+                || Long.bitCount(simhash ^ other.simhash) <= SIMHASH_DISTANCE;
+        }
+    }
+
+    /**
+     * Additive-increase, multiplicative-decrease limit on requests in flight.
+     */
+    private static final class AdaptiveLimit {
+        private final int min;
+        private final int max;
+        private int limit;
+        private int inFlight;
+        private int healthy;
+        private long fastest = Long.MAX_VALUE;
+
+        AdaptiveLimit(int min, int max, int initial) {
+            this.min = min;
+            this.max = max;
+            this.limit = initial;
+        }
+
+        synchronized void acquire() throws InterruptedException {
+            while (inFlight >= limit) {
+                wait();
+            }
+            inFlight++;
+        }
+
+        synchronized void release(long latencyNanos, boolean throttled) {
+            inFlight--;
+            if (latencyNanos > 0) {
+                fastest = Math.min(fastest, latencyNanos);
+                if (throttled || latencyNanos > Math.max(4 * fastest, fastest + SLOW_MARGIN_NANOS)) {
+                    limit = Math.max(min, limit / 2);
+                    healthy = 0;
+                } else if (++healthy >= limit) {
+                    limit = Math.min(max, limit + 1);
+                    healthy = 0;
+                }
+            }
+            notifyAll();
+        }
+
+        synchronized int current() {
+            return limit;
+        }
+    }
+
+    /**
+     * The outcome of a probe run.
+     */
+    public static final class Report {
+        private final Map<String, Map<String, Integer>> kept;
+        private final int candidates;
+        private final int requests;
+        private final int errors;
+        private final long elapsedNanos;
+
+        Report(Map<String, Map<String, Integer>> kept, int candidates, int requests, int errors, long elapsedNanos) {
+            this.kept = kept;
+            this.candidates = candidates;
+            this.requests = requests;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Returns the kept entries of a category with their status codes, in
+         * candidate order. Entries whose request failed have {@link #STATUS_ERROR}.
+         *
+         * @param category The category name
+         * @return Entry to status code
+         */
+        public Map<String, Integer> kept(String category) {
+            return kept.getOrDefault(category, Map.of());
+        }
+
+        public int keptCount() {
+            int count = 0;
+            for (Map<String, Integer> entries : kept.values()) {
+                count += entries.size();
+            }
+            return count;
+        }
+
+        public double requestsPerSecond() {
+            return elapsedNanos == 0 ? 0 : requests * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Returns the share of candidates that were pruned.
+         *
+         * @return A value between 0 and 1
+         */
+        public double pruningRatio() {
+            return candidates == 0 ? 0 : 1 - (double) keptCount() / candidates;
+        }
+
+        public String summary() {
+            return String.format("probed %d entries in %.1f s (%.0f req/s), kept %d, pruned %.1f%%%s",
+                candidates, elapsedNanos / 1e9, requestsPerSecond(), keptCount(), pruningRatio() * 100,
+                errors == 0 ? "" : ", " + errors + " errors kept unverified");
+        }
+    }
+}
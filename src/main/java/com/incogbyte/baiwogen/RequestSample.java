@@ -0,0 +1,56 @@
+package com.incogbyte.baiwogen;
+
+/**
+ * One recorded request, as read by {@link PayloadExtractor}: from Burp's
+ * sitemap through {@link MontoyaRequestSample}, or from a HAR or Burp XML
+ * export through {@link TrafficExportReader}.
+ */
+public interface RequestSample {
+
+    /**
+     * Returns the absolute request URL, including the query string.
+     *
+     * @return The URL
+     */
+    String url();
+
+    String method();
+
+    /**
+     * Returns the value of a request header.
+     *
+     * @param name The header name, matched case-insensitively
+     * @return The value, or null if the header is absent
+     */
+    String header(String name);
+
+    /**
+     * Returns the start of the request body.
+     *
+     * @param maxBytes The maximum number of bytes to return
+     * @return At most {@code maxBytes} bytes; empty if there is no body
+     */
+    byte[] bodyPrefix(int maxBytes);
+
+    /**
+     * Returns the Burp MimeType name of the response, such as {@code IMAGE_PNG}.
+     *
+     * @return The name, or null if there is no response
+     */
+    String responseMimeType();
+
+    /**
+     * Returns the response status code.
+     *
+     * @return The status code, or 0 if there is no response
+     */
+    int responseStatus();
+
+    /**
+     * Returns whether the request is in the Burp target scope. Requests read
+     * outside Burp are always in scope.
+     *
+     * @return true if in scope
+     */
+    boolean inScope();
+}
@@ -0,0 +1,81 @@
+package com.incogbyte.baiwogen;
+
+import java.util.Arrays;
+
+/**
+ * A small, self-contained copy of the parts of a {@link RequestSample} that
+ * {@link PayloadExtractor} reads: URL, method, Content-Type, a bounded body
+ * prefix and the response status and MIME type. It holds no reference to the
+ * message it was taken from, so observed traffic can be kept without keeping
+ * full requests and responses alive.
+ */
+public final class RequestSnapshot implements RequestSample {
+    private final String url;
+    private final String method;
+    private final String contentType;
+    private final byte[] body;
+    private final String mimeType;
+    private final int status;
+    private final boolean inScope;
+
+    private RequestSnapshot(String url, String method, String contentType, byte[] body, String mimeType,
+                            int status, boolean inScope) {
+        this.url = url;
+        this.method = method;
+        this.contentType = contentType;
+        this.body = body;
+        this.mimeType = mimeType;
+        this.status = status;
+        this.inScope = inScope;
+    }
+
+    /**
+     * Copies a sample.
+     *
+     * @param sample       The sample to copy
+     * @param maxBodyBytes The number of request body bytes kept
+     * @return The snapshot
+     */
+    public static RequestSnapshot of(RequestSample sample, int maxBodyBytes) {
+        return new RequestSnapshot(sample.url(), sample.method(), sample.header("Content-Type"),
+            sample.bodyPrefix(maxBodyBytes), sample.responseMimeType(), sample.responseStatus(), sample.inScope());
+    }
+
+    @Override
+    public String url() {
+        return url;
+    }
+
+    @Override
+    public String method() {
+        return method;
+    }
+
+    /**
+     * Returns the Content-Type; every other header was not kept and reads as absent.
+     */
+    @Override
+    public String header(String name) {
+        return "Content-Type".equalsIgnoreCase(name) ? contentType : null;
+    }
+
+    @Override
+    public byte[] bodyPrefix(int maxBytes) {
+        return body.length > maxBytes ? Arrays.copyOf(body, maxBytes) : body;
+    }
+
+    @Override
+    public String responseMimeType() {
+        return mimeType;
+    }
+
+    @Override
+    public int responseStatus() {
+        return status;
+    }
+
+    @Override
+    public boolean inScope() {
+        return inScope;
+    }
+}
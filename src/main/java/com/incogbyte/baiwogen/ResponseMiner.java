@@ -0,0 +1,338 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.http.message.MimeType;
+import burp.api.montoya.http.message.responses.HttpResponse;
+import com.google.gson.Gson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mines response bodies for route literals, request URLs, form fields and JSON keys.
+ * <p>
+ * JavaScript bundles and HTML pages are where hidden routes and parameter names
+ * usually appear. Bodies are scanned as raw bytes in a single pass, without
+ * decoding them into strings: the tokenizer only looks at quoted literals and
+ * materializes a string for the few that look like a path or a parameter name.
+ * Everything else in a multi-megabyte bundle is skipped byte by byte.
+ */
+public class ResponseMiner {
+    private static final Gson GSON = new Gson();
+    private static final Set<MimeType> MINED_TYPES = Set.of(
+        MimeType.HTML, MimeType.SCRIPT, MimeType.JSON, MimeType.XML, MimeType.PLAIN_TEXT);
+    private static final int MAX_LITERAL = 256;
+    private static final String[] CALLERS = {"fetch", "axios", "get", "post", "put", "patch", "delete", "open", "ajax"};
+
+    private final int maxBodyBytes;
+
+    /**
+     * Creates a new ResponseMiner.
+     *
+     * @param maxBodyBytes The number of bytes scanned per body; the rest is ignored
+     */
+    public ResponseMiner(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * Words found in one or more bodies, with the number of bodies each appeared in.
+     */
+    public static final class Result {
+        private final Map<String, Integer> paths = new LinkedHashMap<>();
+        private final Map<String, Integer> params = new LinkedHashMap<>();
+
+        public List<String> paths() {
+            return new ArrayList<>(paths.keySet());
+        }
+
+        public List<String> params() {
+            return new ArrayList<>(params.keySet());
+        }
+
+        /**
+         * Returns the most frequent paths, templated and de-duplicated.
+         *
+         * @param max The maximum number of paths returned
+         * @return The paths, most frequent first
+         */
+        public List<String> topPaths(int max) {
+            Map<String, Integer> templated = new HashMap<>();
+            paths.forEach((path, count) -> templated.merge(EndpointTemplater.normalizePath(path), count, Integer::sum));
+            return top(templated, max);
+        }
+
+        /**
+         * Returns the most frequent parameter names.
+         *
+         * @param max The maximum number of names returned
+         * @return The names, most frequent first
+         */
+        public List<String> topParams(int max) {
+            return top(params, max);
+        }
+
+        /**
+         * Condenses the most frequent words into one payload for the AI prompt.
+         *
+         * @param max The maximum number of paths and of parameter names included
+         * @return A JSON object with the mined paths and parameter names
+         */
+        public String toPayload(int max) {
+            Map<String, Object> mined = new LinkedHashMap<>();
+            mined.put("paths", topPaths(max));
+            mined.put("params", topParams(max));
+            return GSON.toJson(Map.of("minedFromResponses", mined));
+        }
+
+        public void merge(Result other) {
+            other.paths.forEach((k, v) -> paths.merge(k, v, Integer::sum));
+            other.params.forEach((k, v) -> params.merge(k, v, Integer::sum));
+        }
+
+        public boolean isEmpty() {
+            return paths.isEmpty() && params.isEmpty();
+        }
+
+        private static List<String> top(Map<String, Integer> counts, int max) {
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+            entries.sort((a, b) -> b.getValue() - a.getValue());
+            List<String> out = new ArrayList<>();
+            for (int i = 0; i < entries.size() && i < max; i++) {
+                out.add(entries.get(i).getKey());
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Mines the responses of the given sitemap entries.
+     *
+     * @param items The sitemap entries
+     * @return The merged words
+     */
+    public Result mineAll(List<HttpRequestResponse> items) {
+        Result merged = new Result();
+        for (HttpRequestResponse rr : items) {
+            if (rr.hasResponse()) {
+                merged.merge(mine(rr.response()));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Mines one response, if its MIME type can contain routes.
+     *
+     * @param response The response
+     * @return The words found
+     */
+    public Result mine(HttpResponse response) {
+        ByteArray body = response.body();
+        if (!MINED_TYPES.contains(response.mimeType()) || body.length() == 0) {
+            return new Result();
+        }
+        // Montoya's ByteArray exposes no view of its backing array; copy only the scanned prefix.
+        byte[] prefix = body.subArray(0, Math.min(body.length(), maxBodyBytes)).getBytes();
+        return mine(prefix, 0, prefix.length);
+    }
+
+    /**
+     * Mines a byte range of a body.
+     *
+     * @param body The body bytes
+     * @param from The first byte scanned
+     * @param to   The end of the scanned range, exclusive
+     * @return The words found, each counted once
+     */
+    public Result mine(byte[] body, int from, int to) {
+        Result result = new Result();
+        int i = from;
+        while (i < to) {
+            byte b = body[i];
+            if (b != '"' && b != '\'' && b != '`') {
+                i++;
+                continue;
+            }
+            int start = i + 1;
+            int end = start;
+            while (end < to && body[end] != b && end - start <= MAX_LITERAL) {
+                byte c = body[end];
+                if (c == '\\' || c == '\n' || c == '<' || c == '>' || (c == '$' && b == '`')) {
+                    break;
+                }
+                end++;
+            }
+            if (end >= to || body[end] != b) {
+                // Not a simple literal: resume right after the opening quote.
+                i = start;
+                continue;
+            }
+            classify(body, start, end, to, result);
+            i = end + 1;
+        }
+        return result;
+    }
+
+    private static void classify(byte[] body, int start, int end, int to, Result result) {
+        int len = end - start;
+        if (len == 0) {
+            return;
+        }
+        if (body[start] == '/' && len > 1 && body[start + 1] != '/') {
+            addUrl(body, start, end, result);
+            return;
+        }
+        if (startsWith(body, start, end, "http://") || startsWith(body, start, end, "https://")) {
+            int slash = indexOf(body, start + 8, end, (byte) '/');
+            if (slash >= 0) {
+                addUrl(body, slash, end, result);
+            }
+            return;
+        }
+        if (isIdentifier(body, start, end)) {
+            if (nextNonSpace(body, end + 1, to) == ':' || precededBy(body, start - 1, "name=")) {
+                result.params.merge(ascii(body, start, end), 1, (a, c) -> a);
+            } else if (len > 2 && indexOf(body, start, end, (byte) '/') < 0 && calledBy(body, start - 1)) {
+                result.paths.merge("/" + ascii(body, start, end), 1, (a, c) -> a);
+            }
+            return;
+        }
+        if (calledBy(body, start - 1) && isPathLike(body, start, end)) {
+            addUrl(body, start, end, result);
+        }
+    }
+
+    private static void addUrl(byte[] body, int start, int end, Result result) {
+        int query = indexOf(body, start, end, (byte) '?');
+        int hash = indexOf(body, start, end, (byte) '#');
+        int pathEnd = query >= 0 ? query : hash >= 0 ? hash : end;
+        if (!isPathLike(body, start, pathEnd)) {
+            return;
+        }
+        String path = new String(body, start, pathEnd - start, StandardCharsets.UTF_8);
+        result.paths.merge(path.startsWith("/") ? path : "/" + path, 1, (a, c) -> a);
+        if (query >= 0) {
+            int queryEnd = hash > query ? hash : end;
+            int pair = query + 1;
+            while (pair < queryEnd) {
+                int amp = indexOf(body, pair, queryEnd, (byte) '&');
+                int pairEnd = amp >= 0 ? amp : queryEnd;
+                int eq = indexOf(body, pair, pairEnd, (byte) '=');
+                int nameEnd = eq >= 0 ? eq : pairEnd;
+                if (isIdentifier(body, pair, nameEnd)) {
+                    result.params.merge(ascii(body, pair, nameEnd), 1, (a, c) -> a);
+                }
+                pair = pairEnd + 1;
+            }
+        }
+    }
+
+    /** True for characters that occur in URL paths and path templates, with at least one letter. */
+    private static boolean isPathLike(byte[] body, int start, int end) {
+        boolean letter = false;
+        for (int i = start; i < end; i++) {
+            int c = body[i] & 0xff;
+            if (Character.isLetter(c)) {
+                letter = true;
+            } else if (!(c >= '0' && c <= '9') && "/-_.~:{}%@+".indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return letter;
+    }
+
+    private static boolean isIdentifier(byte[] body, int start, int end) {
+        if (end - start < 2 || end - start > 64) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            int c = body[i] & 0xff;
+            boolean ok = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '-'
+                || (i > start && c >= '0' && c <= '9') || (i > start && c == '.');
+            if (!ok) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** True if the literal is the first argument of a call such as {@code fetch(} or {@code axios.get(}. */
+    private static boolean calledBy(byte[] body, int quote) {
+        int i = quote - 1;
+        while (i >= 0 && body[i] == ' ') {
+            i--;
+        }
+        if (i < 0 || body[i] != '(') {
+            return false;
+        }
+        int end = i;
+        int start = end;
+        while (start > 0 && Character.isLetter(body[start - 1] & 0xff)) {
+            start--;
+        }
+        for (String caller : CALLERS) {
+            if (end - start == caller.length() && startsWithIgnoreCase(body, start, end, caller)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean precededBy(byte[] body, int quote, String text) {
+        int start = quote - text.length();
+        return start >= 0 && startsWithIgnoreCase(body, start, quote, text);
+    }
+
+    private static int nextNonSpace(byte[] body, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (body[i] != ' ' && body[i] != '\t' && body[i] != '\r' && body[i] != '\n') {
+                return body[i];
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[] body, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (body[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(byte[] body, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (body[start + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWithIgnoreCase(byte[] body, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (Character.toLowerCase(body[start + i]) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String ascii(byte[] body, int start, int end) {
+        return new String(body, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,144 @@
+package com.incogbyte.baiwogen;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One generation target: its own AI conversation and its own wordlists.
+ * <p>
+ * The session object doubles as the {@link JobScheduler} serialization key,
+ * so jobs for different sessions run in parallel while jobs for the same
+ * session run one at a time.
+ */
+public class Session {
+    private final String key;
+    private final AIConversationManager conversation;
+    private final Map<String, List<String>> categories = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Integer>> statuses = new ConcurrentHashMap<>();
+    private volatile String prefix;
+    private volatile List<String> stackExtensions = List.of();
+    private volatile Map<String, Integer> sitemapCounts = Map.of();
+
+    /**
+     * Creates a new Session.
+     *
+     * @param key          The host or sitemap prefix this session covers
+     * @param conversation The conversation owned by this session
+     */
+    public Session(String key, AIConversationManager conversation) {
+        this.key = key;
+        this.conversation = conversation;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public AIConversationManager conversation() {
+        return conversation;
+    }
+
+    /**
+     * Records the sitemap prefix most recently generated for.
+     *
+     * @param prefix The URL prefix, e.g. {@code https://example.com/api/}
+     */
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Returns the path part of the last generated prefix.
+     *
+     * @return The path, e.g. {@code /api/}, or "/" if nothing was generated yet
+     */
+    public String prefixPath() {
+        String current = prefix;
+        if (current == null) {
+            return "/";
+        }
+        String path = current.substring(SessionRegistry.keyFor(current).length());
+        return path.isEmpty() ? "/" : path;
+    }
+
+    /**
+     * Returns the file extensions seen most often in this session's sitemap.
+     *
+     * @return Extensions such as ".php", most frequent first
+     */
+    public List<String> stackExtensions() {
+        return stackExtensions;
+    }
+
+    public void setStackExtensions(List<String> extensions) {
+        this.stackExtensions = List.copyOf(extensions);
+    }
+
+    /**
+     * Returns how often each path segment and parameter name occurs in the
+     * sitemap entries generated from so far.
+     *
+     * @return Lowercased segment to occurrences, see {@link WordlistRanker#sitemapCounts}
+     */
+    public Map<String, Integer> sitemapCounts() {
+        return sitemapCounts;
+    }
+
+    /**
+     * Adds occurrences seen in newly generated sitemap entries.
+     *
+     * @param counts Lowercased segment to occurrences
+     */
+    public synchronized void addSitemapCounts(Map<String, Integer> counts) {
+        Map<String, Integer> merged = new HashMap<>(sitemapCounts);
+        counts.forEach((segment, n) -> merged.merge(segment, n, Integer::sum));
+        sitemapCounts = Map.copyOf(merged);
+    }
+
+    /**
+     * Returns the current entries of a wordlist category.
+     *
+     * @param category The category name, e.g. "Paths"
+     * @return The entries, or an empty list
+     */
+    public List<String> items(String category) {
+        return categories.getOrDefault(category, List.of());
+    }
+
+    public void setItems(String category, List<String> items) {
+        categories.put(category, List.copyOf(items));
+    }
+
+    /**
+     * Returns the status codes recorded for entries of a category by the last
+     * verification run.
+     *
+     * @param category The category name, e.g. "Paths"
+     * @return Entry to status code; entries never verified are absent
+     */
+    public Map<String, Integer> statuses(String category) {
+        return statuses.getOrDefault(category, Map.of());
+    }
+
+    public void setStatuses(String category, Map<String, Integer> entryStatuses) {
+        statuses.put(category, Map.copyOf(entryStatuses));
+    }
+
+    /**
+     * Clears the conversation, all wordlists, their status codes and the
+     * sitemap occurrences.
+     */
+    public void reset() {
+        conversation.resetContext();
+        categories.clear();
+        statuses.clear();
+        sitemapCounts = Map.of();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -0,0 +1,54 @@
+package com.incogbyte.baiwogen;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Holds one {@link Session} per target host, created on first use.
+ */
+public class SessionRegistry {
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Function<String, AIConversationManager> conversationFactory;
+
+    /**
+     * Creates a new SessionRegistry.
+     *
+     * @param conversationFactory Creates the conversation for a new session, given its key
+     */
+    public SessionRegistry(Function<String, AIConversationManager> conversationFactory) {
+        this.conversationFactory = conversationFactory;
+    }
+
+    /**
+     * Derives the session key for a URL: its scheme and authority.
+     *
+     * @param url An absolute URL or URL prefix
+     * @return The session key, e.g. {@code https://example.com}
+     */
+    public static String keyFor(String url) {
+        int schemeEnd = url.indexOf("://");
+        int pathStart = schemeEnd < 0 ? -1 : url.indexOf('/', schemeEnd + 3);
+        return pathStart < 0 ? url : url.substring(0, pathStart);
+    }
+
+    /**
+     * Returns the session for a key, creating it if needed.
+     *
+     * @param key The session key
+     * @return The session
+     */
+    public Session getOrCreate(String key) {
+        return sessions.computeIfAbsent(key, k -> new Session(k, conversationFactory.apply(k)));
+    }
+
+    /**
+     * Returns the session for a key.
+     *
+     * @param key The session key
+     * @return The session, or null if none exists
+     */
+    public Session get(String key) {
+        return key == null ? null : sessions.get(key);
+    }
+}
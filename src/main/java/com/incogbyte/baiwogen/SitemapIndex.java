@@ -0,0 +1,273 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.core.ToolType;
+import burp.api.montoya.http.handler.HttpHandler;
+import burp.api.montoya.http.handler.HttpRequestToBeSent;
+import burp.api.montoya.http.handler.HttpResponseReceived;
+import burp.api.montoya.http.handler.RequestToBeSentAction;
+import burp.api.montoya.http.handler.ResponseReceivedAction;
+import burp.api.montoya.http.message.HttpRequestResponse;
+import burp.api.montoya.sitemap.SiteMap;
+import burp.api.montoya.sitemap.SiteMapFilter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * URL trie over the Burp sitemap, keyed by origin and then by path segment.
+ * <p>
+ * The index is built from the sitemap once, on first use, and is kept current
+ * afterwards by observing responses as an {@link HttpHandler}. Only Proxy
+ * traffic with a status other than 404 or 410 is added, which is what Burp's
+ * own sitemap would gain; Intruder, Scanner and Repeater responses, mostly
+ * fuzz misses, never enter it. Entries that reach the sitemap by other means
+ * after the build, such as imported items or requests sent from Repeater,
+ * are not indexed until the extension is reloaded.
+ * <p>
+ * Every entry, built or observed, is kept as a {@link RequestSnapshot} rather
+ * than the full message, so the index never pins sitemap bodies in memory.
+ * Responses for mining are read back from Burp's sitemap when needed, see
+ * {@link #responses(String)}. Prefix lookups only visit the matching subtree
+ * instead of scanning the whole sitemap.
+ */
+public class SitemapIndex implements HttpHandler {
+    private final SiteMap siteMap;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Node> origins = new LinkedHashMap<>();
+    private volatile boolean built;
+    private int size;
+
+    /**
+     * Creates a new, not yet built, index over the given sitemap.
+     *
+     * @param siteMap The Burp sitemap used for the initial build
+     */
+    public SitemapIndex(SiteMap siteMap) {
+        this.siteMap = siteMap;
+    }
+
+    /**
+     * Returns all indexed requests whose URL lies under the given prefix.
+     * Builds the index from the sitemap first if this has not happened yet.
+     *
+     * @param prefix A URL prefix ending in '/', e.g. {@code https://host/api/}
+     * @return The matching entries, in insertion order
+     */
+    public List<RequestSample> lookup(String prefix) {
+        ensureBuilt();
+
+        Key key = Key.of(prefix);
+        List<RequestSample> out = new ArrayList<>();
+        if (key == null) {
+            return out;
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = origins.get(key.origin);
+            // The last segment of a prefix is whatever follows its final '/', which is empty.
+            for (int i = 0; node != null && i < key.segments.length - 1; i++) {
+                node = node.children.get(key.segments[i]);
+            }
+            if (node != null) {
+                collect(node, out);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return out;
+    }
+
+    /**
+     * Reads the sitemap entries under a prefix from Burp, responses included.
+     * The entries are not kept by the index.
+     *
+     * @param prefix A URL prefix ending in '/'
+     * @return The sitemap entries under the prefix
+     */
+    public List<HttpRequestResponse> responses(String prefix) {
+        return siteMap.requestResponses(SiteMapFilter.prefixFilter(prefix));
+    }
+
+    /**
+     * Reduces URLs to the directory prefixes that cover them, grouped by
+     * origin. A prefix lying under another one of the same origin is dropped,
+     * so looking up every returned prefix visits each entry once.
+     *
+     * @param urls Absolute URLs, e.g. of the selected sitemap nodes
+     * @return Origin to its covering prefixes, sorted; origins in order of first appearance
+     */
+    public static Map<String, List<String>> coveringPrefixes(List<String> urls) {
+        Map<String, TreeSet<String>> byOrigin = new LinkedHashMap<>();
+        for (String url : urls) {
+            Key key = Key.of(url);
+            if (key == null) {
+                continue;
+            }
+            StringBuilder prefix = new StringBuilder(key.origin).append('/');
+            for (int i = 0; i < key.segments.length - 1; i++) {
+                prefix.append(key.segments[i]).append('/');
+            }
+            byOrigin.computeIfAbsent(key.origin, k -> new TreeSet<>()).add(prefix.toString());
+        }
+        Map<String, List<String>> out = new LinkedHashMap<>();
+        byOrigin.forEach((origin, prefixes) -> {
+            // Sorted, a prefix comes before everything under it, so comparing with the last kept one suffices.
+            List<String> covering = new ArrayList<>();
+            for (String prefix : prefixes) {
+                if (covering.isEmpty() || !prefix.startsWith(covering.get(covering.size() - 1))) {
+                    covering.add(prefix);
+                }
+            }
+            out.put(origin, covering);
+        });
+        return out;
+    }
+
+    /**
+     * Returns the deepest directory prefix shared by prefixes of one origin.
+     *
+     * @param prefixes URL prefixes ending in '/', all of the same origin
+     * @return The shared prefix, ending in '/'
+     */
+    public static String commonPrefix(List<String> prefixes) {
+        String common = prefixes.get(0);
+        for (String prefix : prefixes) {
+            int n = 0;
+            while (n < common.length() && n < prefix.length() && common.charAt(n) == prefix.charAt(n)) {
+                n++;
+            }
+            common = common.substring(0, n);
+        }
+        return common.substring(0, common.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Adds or replaces an entry. Entries are unique per method and URL.
+     *
+     * @param sample The request to index
+     */
+    public void add(RequestSample sample) {
+        String url = sample.url();
+        Key key = Key.of(url);
+        if (key == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Node node = origins.computeIfAbsent(key.origin, k -> new Node());
+            for (String segment : key.segments) {
+                node = node.children.computeIfAbsent(segment, k -> new Node());
+            }
+            if (node.entries.put(sample.method() + " " + url, sample) == null) {
+                size++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the index from the full sitemap if it has not been built yet.
+     */
+    public void ensureBuilt() {
+        if (built) {
+            return;
+        }
+        synchronized (this) {
+            if (!built) {
+                for (HttpRequestResponse rr : siteMap.requestResponses()) {
+                    add(RequestSnapshot.of(new MontoyaRequestSample(rr), PayloadExtractor.MAX_BODY_BYTES));
+                }
+                built = true;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of indexed entries.
+     *
+     * @return The entry count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public RequestToBeSentAction handleHttpRequestToBeSent(HttpRequestToBeSent requestToBeSent) {
+        return RequestToBeSentAction.continueWith(requestToBeSent);
+    }
+
+    @Override
+    public ResponseReceivedAction handleHttpResponseReceived(HttpResponseReceived responseReceived) {
+        // Until the first lookup the sitemap itself is the source of truth, so skip the bookkeeping.
+        int status = responseReceived.statusCode();
+        if (built && responseReceived.toolSource().isFromTool(ToolType.PROXY) && status != 404 && status != 410) {
+            add(RequestSnapshot.of(new MontoyaRequestSample(
+                HttpRequestResponse.httpRequestResponse(responseReceived.initiatingRequest(), responseReceived)),
+                PayloadExtractor.MAX_BODY_BYTES));
+        }
+        return ResponseReceivedAction.continueWith(responseReceived);
+    }
+
+    private static void collect(Node start, List<RequestSample> out) {
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            out.addAll(node.entries.values());
+            List<Node> children = new ArrayList<>(node.children.values());
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(children.get(i));
+            }
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        private final Map<String, RequestSample> entries = new LinkedHashMap<>(2);
+    }
+
+    /**
+     * A URL split into its origin ({@code scheme://authority}) and path segments.
+     * The query string is not part of the key.
+     */
+    private static final class Key {
+        private final String origin;
+        private final String[] segments;
+
+        private Key(String origin, String[] segments) {
+            this.origin = origin;
+            this.segments = segments;
+        }
+
+        static Key of(String url) {
+            int schemeEnd = url.indexOf("://");
+            if (schemeEnd < 0) {
+                return null;
+            }
+            int pathStart = url.indexOf('/', schemeEnd + 3);
+            int queryStart = url.indexOf('?', schemeEnd + 3);
+            if (pathStart < 0 || (queryStart >= 0 && queryStart < pathStart)) {
+                String origin = queryStart >= 0 ? url.substring(0, queryStart) : url;
+                return new Key(origin, new String[] {""});
+            }
+            int pathEnd = queryStart >= 0 ? queryStart : url.length();
+            String path = url.substring(pathStart + 1, pathEnd);
+            return new Key(url.substring(0, pathStart), path.split("/", -1));
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.incogbyte.baiwogen;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams the requests out of a HAR file or a Burp "Save items" XML export.
+ * <p>
+ * Both formats are read with streaming parsers and each request is handed on
+ * as soon as it is complete, so exports far larger than the heap can be read.
+ * Responses are skipped without being kept, and request bodies are cut to a
+ * bounded prefix. The format is detected from the first character of the
+ * file.
+ */
+public final class TrafficExportReader {
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private TrafficExportReader() {
+    }
+
+    /**
+     * Reads all requests of an export.
+     *
+     * @param file     The HAR or Burp XML file
+     * @param consumer Receives each request, in file order
+     * @return The number of requests read
+     * @throws IOException if the file cannot be read or is in neither format
+     */
+    public static long read(Path file, Consumer<RequestSample> consumer) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            int first = firstSignificantByte(in);
+            if (first == '{') {
+                return readHar(in, consumer);
+            }
+            if (first == '<') {
+                return readBurpXml(in, consumer);
+            }
+            throw new IOException(file + " is neither a HAR file nor a Burp XML export");
+        }
+    }
+
+    private static long readHar(InputStream in, Consumer<RequestSample> consumer) throws IOException {
+        long count = 0;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("log")) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (!reader.nextName().equals("entries")) {
+                        reader.skipValue();
+                        continue;
+                    }
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        ExportedRequest request = readHarEntry(reader);
+                        if (request != null) {
+                            consumer.accept(request);
+                            count++;
+                        }
+                    }
+                    reader.endArray();
+                }
+                reader.endObject();
+            }
+        } catch (IllegalStateException e) {
+            throw new IOException("Malformed HAR file: " + e.getMessage(), e);
+        }
+        return count;
+    }
+
+    private static ExportedRequest readHarEntry(JsonReader reader) throws IOException {
+        ExportedRequest request = new ExportedRequest();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String section = reader.nextName();
+            if (section.equals("response")) {
+                readHarResponse(reader, request);
+                continue;
+            }
+            if (!section.equals("request")) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "method" -> request.method = reader.nextString();
+                    case "url" -> request.url = reader.nextString();
+                    case "headers" -> {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            String name = null;
+                            String value = null;
+                            reader.beginObject();
+                            while (reader.hasNext()) {
+                                switch (reader.nextName()) {
+                                    case "name" -> name = reader.nextString();
+                                    case "value" -> value = reader.nextString();
+                                    default -> reader.skipValue();
+                                }
+                            }
+                            reader.endObject();
+                            if (name != null && value != null) {
+                                request.headers.putIfAbsent(name.toLowerCase(Locale.ROOT), value);
+                            }
+                        }
+                        reader.endArray();
+                    }
+                    case "postData" -> {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            String key = reader.nextName();
+                            if (key.equals("text") && reader.peek() == JsonToken.STRING) {
+                                request.body = truncate(reader.nextString().getBytes(StandardCharsets.UTF_8));
+                            } else if (key.equals("mimeType") && reader.peek() == JsonToken.STRING) {
+                                request.headers.putIfAbsent("content-type", reader.nextString());
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        return request.url == null ? null : request;
+    }
+
+    /** Reads the status and MIME type of a HAR response, skipping its content. */
+    private static void readHarResponse(JsonReader reader, ExportedRequest request) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (key.equals("status") && reader.peek() == JsonToken.NUMBER) {
+                request.status = reader.nextInt();
+            } else if (key.equals("content") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("mimeType") && reader.peek() == JsonToken.STRING) {
+                        request.mimeType = FilterChain.mimeTypeName(reader.nextString());
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static long readBurpXml(InputStream in, Consumer<RequestSample> consumer) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Burp exports carry an inline DTD; neither it nor any external entity is needed or trusted.
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        long count = 0;
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            ExportedRequest request = null;
+            StringBuilder text = null;
+            boolean base64 = false;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        String element = reader.getLocalName();
+                        if (element.equals("item")) {
+                            request = new ExportedRequest();
+                        } else if (request != null && (element.equals("url") || element.equals("method")
+                                || element.equals("request") || element.equals("status")
+                                || element.equals("mimetype"))) {
+                            text = new StringBuilder();
+                            base64 = "true".equals(reader.getAttributeValue(null, "base64"));
+                        }
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                        if (text != null) {
+                            text.append(reader.getText());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        String element = reader.getLocalName();
+                        if (request == null) {
+                            break;
+                        }
+                        switch (element) {
+                            case "url" -> request.url = text.toString().trim();
+                            case "method" -> request.method = text.toString().trim();
+                            case "request" -> parseRawRequest(request, text.toString().trim(), base64);
+                            case "status" -> request.status = parseStatus(text.toString().trim());
+                            case "mimetype" -> request.mimeType = FilterChain.mimeTypeName(text.toString().trim());
+                            case "item" -> {
+                                if (request.url != null) {
+                                    consumer.accept(request);
+                                    count++;
+                                }
+                                request = null;
+                            }
+                            default -> {
+                            }
+                        }
+                        text = null;
+                    }
+                    default -> {
+                    }
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            throw new IOException("Malformed Burp XML export: " + e.getMessage(), e);
+        }
+        return count;
+    }
+
+    /** Takes the headers and body out of a raw HTTP request. */
+    private static void parseRawRequest(ExportedRequest request, String content, boolean base64) {
+        byte[] raw = base64 ? Base64.getMimeDecoder().decode(content) : content.getBytes(StandardCharsets.ISO_8859_1);
+        int headerEnd = indexOf(raw, new byte[] {'\r', '\n', '\r', '\n'});
+        int bodyStart = headerEnd + 4;
+        if (headerEnd < 0) {
+            headerEnd = indexOf(raw, new byte[] {'\n', '\n'});
+            bodyStart = headerEnd + 2;
+        }
+        if (headerEnd < 0) {
+            headerEnd = raw.length;
+            bodyStart = raw.length;
+        }
+        String[] lines = new String(raw, 0, headerEnd, StandardCharsets.ISO_8859_1).split("\r?\n");
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) {
+                request.headers.putIfAbsent(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                    lines[i].substring(colon + 1).trim());
+            }
+        }
+        request.body = truncate(Arrays.copyOfRange(raw, Math.min(bodyStart, raw.length), raw.length));
+    }
+
+    private static int parseStatus(String status) {
+        try {
+            return Integer.parseInt(status);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int indexOf(byte[] data, byte[] needle) {
+        outer:
+        for (int i = 0; i <= data.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (data[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static byte[] truncate(byte[] body) {
+        return body.length > MAX_BODY_BYTES ? Arrays.copyOf(body, MAX_BODY_BYTES) : body;
+    }
+
+    /** Peeks past whitespace and a UTF-8 byte order mark; the stream is left at the returned byte. */
+    private static int firstSignificantByte(InputStream in) throws IOException {
+        while (true) {
+            in.mark(1);
+            int b = in.read();
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n' && b != 0xEF && b != 0xBB && b != 0xBF) {
+                in.reset();
+                return b;
+            }
+        }
+    }
+
+    private static final class ExportedRequest implements RequestSample {
+        private final Map<String, String> headers = new HashMap<>();
+        private String url;
+        private String method = "GET";
+        private byte[] body = new byte[0];
+        private int status;
+        private String mimeType;
+
+        @Override
+        public String url() {
+            return url;
+        }
+
+        @Override
+        public String method() {
+            return method;
+        }
+
+        @Override
+        public String header(String name) {
+            return headers.get(name.toLowerCase(Locale.ROOT));
+        }
+
+        @Override
+        public byte[] bodyPrefix(int maxBytes) {
+            return body.length > maxBytes ? Arrays.copyOf(body, maxBytes) : body;
+        }
+
+        @Override
+        public String responseMimeType() {
+            return mimeType;
+        }
+
+        @Override
+        public int responseStatus() {
+            return status;
+        }
+
+        @Override
+        public boolean inScope() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.incogbyte.baiwogen;
+
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * List model for one wordlist category, suitable for very large lists.
+ * <p>
+ * Entries are kept in a plain array list and only the visible rows are ever
+ * rendered by the {@code JList}. A filter is applied by building an index of
+ * matching rows, so filtering never copies the entries themselves. All
+ * methods must be called on the Swing event thread.
+ */
+public class WordListModel extends AbstractListModel<String> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> items = new ArrayList<>();
+    private String filter = "";
+    private int[] view;
+    private int viewSize;
+
+    @Override
+    public int getSize() {
+        return view == null ? items.size() : viewSize;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return items.get(view == null ? index : view[index]);
+    }
+
+    /**
+     * Replaces all entries.
+     *
+     * @param newItems The new entries
+     */
+    public void setItems(Collection<String> newItems) {
+        int oldSize = getSize();
+        items.clear();
+        items.addAll(newItems);
+        rebuildView();
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (getSize() > 0) {
+            fireIntervalAdded(this, 0, getSize() - 1);
+        }
+    }
+
+    /**
+     * Appends entries, notifying listeners only about the added rows.
+     *
+     * @param newItems The entries to append
+     */
+    public void append(Collection<String> newItems) {
+        if (newItems.isEmpty()) {
+            return;
+        }
+        int start = items.size();
+        items.addAll(newItems);
+        if (view == null) {
+            fireIntervalAdded(this, start, items.size() - 1);
+            return;
+        }
+        int oldSize = viewSize;
+        for (int i = start; i < items.size(); i++) {
+            addToView(i);
+        }
+        if (viewSize > oldSize) {
+            fireIntervalAdded(this, oldSize, viewSize - 1);
+        }
+    }
+
+    /**
+     * Shows only entries containing the given text, ignoring case.
+     *
+     * @param text The filter text; blank shows everything
+     */
+    public void setFilter(String text) {
+        String normalized = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        if (normalized.equals(filter)) {
+            return;
+        }
+        int oldSize = getSize();
+        filter = normalized;
+        rebuildView();
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (getSize() > 0) {
+            fireIntervalAdded(this, 0, getSize() - 1);
+        }
+    }
+
+    /**
+     * Returns the total number of entries, ignoring the filter.
+     *
+     * @return The entry count
+     */
+    public int totalSize() {
+        return items.size();
+    }
+
+    private void rebuildView() {
+        if (filter.isEmpty()) {
+            view = null;
+            viewSize = 0;
+            return;
+        }
+        view = new int[Math.max(16, items.size() / 8)];
+        viewSize = 0;
+        for (int i = 0; i < items.size(); i++) {
+            addToView(i);
+        }
+    }
+
+    private void addToView(int index) {
+        if (!containsIgnoreCase(items.get(index), filter)) {
+            return;
+        }
+        if (viewSize == view.length) {
+            view = Arrays.copyOf(view, view.length * 2);
+        }
+        view[viewSize++] = index;
+    }
+
+    private static boolean containsIgnoreCase(String haystack, String lowerNeedle) {
+        int max = haystack.length() - lowerNeedle.length();
+        for (int i = 0; i <= max; i++) {
+            if (haystack.regionMatches(true, i, lowerNeedle, 0, lowerNeedle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,323 @@
+package com.incogbyte.baiwogen;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Every word the AI ever generated or that was mined from responses, per
+ * host and category, de-duplicated across runs.
+ * <p>
+ * Words are held in {@link CompactWordSet}s, so the store can keep growing
+ * over many targets and sessions without adding heap pressure. Only the AI's
+ * own entries and mined words are stored, not local variants, which are
+ * recomputed on demand, and each list stops accepting new words at a fixed
+ * size. Each addition belongs to a run, which allows asking which words a
+ * generation actually added; the latest run of each host is kept even when
+ * it added nothing, so "new since last run" is then empty. Hosts can be
+ * compared and merged, and the store can be saved to and loaded from a gzip
+ * file so sessions are restored after an extension reload.
+ */
+public class WordStore {
+    private static final int MAGIC = 0xBA1D_5701;
+    private static final int VERSION = 2;
+
+    private final Map<String, CompactWordSet> sets = new LinkedHashMap<>();
+    /** Host to the latest run that stored words for it, whether or not the run added any. */
+    private final Map<String, Integer> latestRuns = new HashMap<>();
+    private final int maxWordsPerList;
+    private int run;
+
+    /**
+     * Creates a new, empty WordStore.
+     *
+     * @param maxWordsPerList The size at which a host's category stops accepting new words
+     */
+    public WordStore(int maxWordsPerList) {
+        this.maxWordsPerList = maxWordsPerList;
+    }
+
+    /**
+     * Starts a new run; words added with the returned id count as new in it.
+     *
+     * @return The run id
+     */
+    public synchronized int beginRun() {
+        return ++run;
+    }
+
+    /**
+     * Adds words to a host's category.
+     *
+     * @param host     The session key, e.g. {@code https://example.com}
+     * @param category The category, e.g. "Paths"
+     * @param words    The words to add
+     * @param runId    The run the words belong to
+     * @return The number of words that were not in the store before and were added
+     */
+    public synchronized int addAll(String host, String category, Collection<String> words, int runId) {
+        latestRuns.merge(host, runId, Math::max);
+        CompactWordSet set = sets.computeIfAbsent(key(host, category), k -> new CompactWordSet());
+        int added = 0;
+        for (String word : words) {
+            if (set.size() >= maxWordsPerList) {
+                break;
+            }
+            if (set.add(word, runId)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns whether a host's category holds a word.
+     *
+     * @param host     The session key
+     * @param category The category
+     * @param word     The word
+     * @return true if the word was stored before
+     */
+    public synchronized boolean contains(String host, String category, String word) {
+        CompactWordSet set = sets.get(key(host, category));
+        return set != null && set.contains(word);
+    }
+
+    /**
+     * Returns the words first added to a host's category in its latest run,
+     * i.e. what is new since the run before. A latest run that added nothing
+     * yields an empty list.
+     *
+     * @param host     The session key
+     * @param category The category
+     * @return The new words, in insertion order
+     */
+    public synchronized List<String> diff(String host, String category) {
+        return newInRun(host, category, latestRun(host));
+    }
+
+    /**
+     * Returns the words of one host's category that another host lacks.
+     *
+     * @param host     The host whose words are listed
+     * @param other    The host compared against
+     * @param category The category
+     * @return The words only {@code host} has
+     */
+    public synchronized List<String> diff(String host, String other, String category) {
+        List<String> out = new ArrayList<>();
+        CompactWordSet set = sets.get(key(host, category));
+        CompactWordSet against = sets.get(key(other, category));
+        if (set != null) {
+            for (String word : set) {
+                if (against == null || !against.contains(word)) {
+                    out.add(word);
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Copies every word of one host into another, in all categories, as a new run of the target.
+     *
+     * @param from The source host
+     * @param to   The target host
+     * @return The number of words the target did not have
+     */
+    public synchronized int merge(String from, String to) {
+        int runId = beginRun();
+        int added = 0;
+        String prefix = from + "\u0000";
+        for (Map.Entry<String, CompactWordSet> entry : new ArrayList<>(sets.entrySet())) {
+            if (entry.getKey().startsWith(prefix)) {
+                String category = entry.getKey().substring(prefix.length());
+                List<String> words = new ArrayList<>(entry.getValue().size());
+                entry.getValue().forEach(words::add);
+                added += addAll(to, category, words, runId);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns the words first added to a host's category in the given run.
+     *
+     * @param host     The session key
+     * @param category The category
+     * @param runId    The run id
+     * @return The new words, in insertion order
+     */
+    public synchronized List<String> newInRun(String host, String category, int runId) {
+        List<String> out = new ArrayList<>();
+        CompactWordSet set = sets.get(key(host, category));
+        if (set != null) {
+            for (int i = 0; i < set.size(); i++) {
+                if (set.runOf(i) == runId) {
+                    out.add(set.get(i));
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Returns all words of a host's category, in insertion order.
+     *
+     * @param host     The session key
+     * @param category The category
+     * @return The words
+     */
+    public synchronized List<String> words(String host, String category) {
+        List<String> out = new ArrayList<>();
+        CompactWordSet set = sets.get(key(host, category));
+        if (set != null) {
+            set.forEach(out::add);
+        }
+        return out;
+    }
+
+    /**
+     * Returns the hosts that have words in any category.
+     *
+     * @return The session keys, in order of first addition
+     */
+    public synchronized Set<String> hosts() {
+        Set<String> hosts = new LinkedHashSet<>();
+        for (String key : sets.keySet()) {
+            hosts.add(hostOf(key));
+        }
+        return hosts;
+    }
+
+    /**
+     * Returns the latest run that stored words for a host, even if it added none.
+     *
+     * @param host The session key
+     * @return The run id, or 0 if nothing was stored for the host
+     */
+    public synchronized int latestRun(String host) {
+        return latestRuns.getOrDefault(host, 0);
+    }
+
+    /**
+     * Returns the total number of words and the off-heap bytes they use.
+     *
+     * @return A short human-readable summary
+     */
+    public synchronized String summary() {
+        long words = 0;
+        long bytes = 0;
+        for (CompactWordSet set : sets.values()) {
+            words += set.size();
+            bytes += set.offHeapBytes();
+        }
+        return words + " words in " + sets.size() + " lists, " + (bytes / 1024) + " KiB off-heap";
+    }
+
+    /**
+     * Writes the store to a gzip file, replacing it atomically.
+     *
+     * @param file The target file
+     * @throws IOException if writing fails
+     */
+    public synchronized void save(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(tmp)), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(run);
+            out.writeInt(latestRuns.size());
+            for (Map.Entry<String, Integer> entry : latestRuns.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+            out.writeInt(sets.size());
+            for (Map.Entry<String, CompactWordSet> entry : sets.entrySet()) {
+                CompactWordSet set = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeInt(set.size());
+                for (int i = 0; i < set.size(); i++) {
+                    byte[] bytes = set.get(i).getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(set.runOf(i));
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads a store written by {@link #save(Path)}.
+     *
+     * @param file            The file to read
+     * @param maxWordsPerList The size at which a host's category stops accepting new words
+     * @return The store, or an empty store if the file does not exist
+     * @throws IOException if the file is unreadable or not a word store
+     */
+    public static WordStore load(Path file, int maxWordsPerList) throws IOException {
+        WordStore store = new WordStore(maxWordsPerList);
+        if (!Files.exists(file)) {
+            return store;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file)), 1 << 16))) {
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Not a Baiwogen word store: " + file);
+            }
+            store.run = in.readInt();
+            if (version >= 2) {
+                int hostCount = in.readInt();
+                for (int h = 0; h < hostCount; h++) {
+                    store.latestRuns.put(in.readUTF(), in.readInt());
+                }
+            }
+            int setCount = in.readInt();
+            for (int s = 0; s < setCount; s++) {
+                CompactWordSet set = new CompactWordSet();
+                String key = in.readUTF();
+                store.sets.put(key, set);
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    int runId = in.readInt();
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    set.add(new String(bytes, StandardCharsets.UTF_8), runId);
+                    if (version == 1) {
+                        // Version 1 kept no per-host runs; the latest run that added words is the best guess.
+                        store.latestRuns.merge(hostOf(key), runId, Math::max);
+                    }
+                }
+            }
+        }
+        return store;
+    }
+
+    private static String key(String host, String category) {
+        return host + "\u0000" + category;
+    }
+
+    private static String hostOf(String key) {
+        return key.substring(0, key.indexOf('\u0000'));
+    }
+}
@@ -0,0 +1,140 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.persistence.PersistedObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content-addressed cache of AI wordlist responses.
+ * <p>
+ * Entries are keyed by a SHA-256 over the system prompt, the prompt options and
+ * the sorted payload set, so the same sitemap content always maps to the same
+ * key regardless of the order it was collected in. Entries are held in an LRU
+ * map and mirrored into the project file through Montoya's persistence API.
+ */
+public class WordlistCache {
+    private static final String STORE_KEY = "baiwogen.wordlistCache";
+
+    private final PersistedObject store;
+    private final Map<String, String> entries;
+
+    /**
+     * Creates a cache backed by the extension's project data, loading any
+     * entries persisted by a previous session.
+     *
+     * @param extensionData The extension data object, or null for an in-memory cache
+     * @param capacity      The maximum number of entries kept
+     */
+    public WordlistCache(PersistedObject extensionData, int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                if (size() > capacity) {
+                    if (store != null) {
+                        store.deleteString(eldest.getKey());
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        PersistedObject child = null;
+        if (extensionData != null) {
+            child = extensionData.getChildObject(STORE_KEY);
+            if (child == null) {
+                extensionData.setChildObject(STORE_KEY, PersistedObject.persistedObject());
+                child = extensionData.getChildObject(STORE_KEY);
+            }
+        }
+        this.store = child;
+
+        if (store != null) {
+            for (String key : store.stringKeys()) {
+                String value = store.getString(key);
+                if (value != null) {
+                    entries.put(key, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the cache key for a prompt.
+     *
+     * @param systemPrompt The system prompt
+     * @param options      A stable description of the prompt options
+     * @param payloads     The payloads sent with the prompt, in any order
+     * @return The hex-encoded key
+     */
+    public static String key(String systemPrompt, String options, Collection<String> payloads) {
+        List<String> sorted = new ArrayList<>(payloads);
+        sorted.sort(null);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, systemPrompt);
+            update(digest, options);
+            for (String payload : sorted) {
+                update(digest, payload);
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Looks up a cached response.
+     *
+     * @param key The cache key
+     * @return The cached response, or null on a miss
+     */
+    public synchronized String get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a response, evicting the least recently used entry when full.
+     *
+     * @param key   The cache key
+     * @param value The AI response
+     */
+    public synchronized void put(String key, String value) {
+        entries.put(key, value);
+        if (store != null) {
+            store.setString(key, value);
+        }
+    }
+
+    /**
+     * Removes all entries, including persisted ones.
+     */
+    public synchronized void clear() {
+        if (store != null) {
+            for (String key : entries.keySet()) {
+                store.deleteString(key);
+            }
+        }
+        entries.clear();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+}
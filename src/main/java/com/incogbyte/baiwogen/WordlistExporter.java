@@ -0,0 +1,130 @@
+package com.incogbyte.baiwogen;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams wordlists to disk in formats ready for common fuzzers.
+ * <p>
+ * Entries are written one at a time through a buffered UTF-8 writer, optionally
+ * gzip-compressed, so even a paths × files product with millions of lines
+ * never has to be held in memory.
+ */
+public class WordlistExporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The output layout of an export.
+     */
+    public enum Profile {
+        /** Every entry as-is, one per line. */
+        RAW("Raw lines"),
+        /** Entries trimmed, without a leading slash, for {@code FUZZ}-style URL templates. */
+        FUZZER("ffuf / feroxbuster"),
+        /** Every path joined with every file. */
+        PATHS_X_FILES("Paths × Files");
+
+        private final String label;
+
+        Profile(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * Writes a wordlist to a file.
+     *
+     * @param target  The file to write
+     * @param gzip    Whether to gzip-compress the output
+     * @param profile The output layout
+     * @param entries The entries of the exported category
+     * @param paths   The Paths entries, used by {@link Profile#PATHS_X_FILES}
+     * @param files   The Files entries, used by {@link Profile#PATHS_X_FILES}
+     * @return The number of lines written
+     * @throws IOException if the file cannot be written
+     */
+    public long export(Path target, boolean gzip, Profile profile,
+                       Iterable<String> entries, Iterable<String> paths, Iterable<String> files) throws IOException {
+        OutputStream out = Files.newOutputStream(target);
+        if (gzip) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return write(writer, profile, entries, paths, files);
+        }
+    }
+
+    /**
+     * Writes a wordlist to a writer. The writer is not closed.
+     *
+     * @param writer  The destination
+     * @param profile The output layout
+     * @param entries The entries of the exported category
+     * @param paths   The Paths entries, used by {@link Profile#PATHS_X_FILES}
+     * @param files   The Files entries, used by {@link Profile#PATHS_X_FILES}
+     * @return The number of lines written
+     * @throws IOException if writing fails
+     */
+    public long write(Writer writer, Profile profile,
+                      Iterable<String> entries, Iterable<String> paths, Iterable<String> files) throws IOException {
+        long lines = 0;
+        switch (profile) {
+            case RAW -> {
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                    lines++;
+                }
+            }
+            case FUZZER -> {
+                for (String entry : entries) {
+                    String word = fuzzerWord(entry);
+                    if (!word.isEmpty()) {
+                        writer.write(word);
+                        writer.write('\n');
+                        lines++;
+                    }
+                }
+            }
+            case PATHS_X_FILES -> {
+                for (String path : paths) {
+                    String dir = fuzzerWord(path);
+                    if (!dir.isEmpty() && !dir.endsWith("/")) {
+                        dir = dir + "/";
+                    }
+                    for (String file : files) {
+                        String name = fuzzerWord(file);
+                        if (!name.isEmpty()) {
+                            writer.write(dir);
+                            writer.write(name);
+                            writer.write('\n');
+                            lines++;
+                        }
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static String fuzzerWord(String entry) {
+        String word = entry.trim();
+        int start = 0;
+        while (start < word.length() && word.charAt(start) == '/') {
+            start++;
+        }
+        return start == 0 ? word : word.substring(start);
+    }
+}
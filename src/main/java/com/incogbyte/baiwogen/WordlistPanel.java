@@ -2,23 +2,50 @@
 
     import javax.swing.*;
     import javax.swing.border.EmptyBorder;
+    import javax.swing.event.DocumentEvent;
+    import javax.swing.event.DocumentListener;
     import java.awt.*;
     import java.awt.datatransfer.Clipboard;
     import java.awt.datatransfer.StringSelection;
     import java.awt.event.ActionListener;
+    import java.awt.event.ItemListener;
     import java.io.File;
-    import java.io.FileWriter;
     import java.util.HashMap;
     import java.util.List;
     import java.util.Map;
+    import java.util.function.Consumer;
+    import java.util.function.Function;
+    import java.util.function.Supplier;
+
+    public class WordlistPanel extends JPanel implements JobScheduler.Listener {
+        public static final String[] CATEGORIES = {"Paths", "Files", "Params", "Headers"};
 
-    public class WordlistPanel extends JPanel {
         private final JTabbedPane tabbedPane;
-        private final Map<String, JTextArea> textAreas;
+        private final Map<String, WordListModel> models;
+        /** Status codes from the last verification, by category; only touched on the Swing event thread. */
+        private final Map<String, Map<String, Integer>> statuses = new HashMap<>();
         private final JLabel statusLabel;
         private final JLabel contextSizeLabel;
+        private final JLabel metricsLabel;
+        private final JCheckBox debugCheck;
         private final JButton resetButton;
         private final JButton refineButton;
+        private final JButton verifyButton;
+        private final JButton cancelJobsButton;
+        private final JComboBox<String> sessionSelector;
+        private final JCheckBox passiveCheck;
+        private final JCheckBox newOnlyCheck;
+        private volatile String selectedSession;
+        private final WordlistExporter exporter = new WordlistExporter();
+        private volatile Function<String, List<String>> wordSource = category -> List.of();
+        private volatile PayloadTransforms payloadTransforms = PayloadTransforms.none();
+        private Supplier<FilterChain> filterSource = FilterChain::defaults;
+        private Consumer<FilterChain> filterSink = chain -> { };
+        private Consumer<File> hitImporter = file -> { };
+        private final JProgressBar jobProgress;
+        private volatile boolean batchMode;
+        private volatile int batchParallelism = 4;
+        private volatile boolean localExpansion = true;
 
         public WordlistPanel() {
             super(new BorderLayout(10, 10));
@@ -28,26 +55,91 @@
             JPanel footer = new JPanel(new BorderLayout(5, 5));
             statusLabel = new JLabel("Ready");
             contextSizeLabel = new JLabel("Context: 0");
+            metricsLabel = new JLabel("No prompts yet");
+            metricsLabel.setToolTipText("Pipeline metrics appear after the first generation");
+            debugCheck = new JCheckBox("Debug log");
+            debugCheck.setToolTipText("Log sample payloads and full AI output");
+            jobProgress = new JProgressBar();
+            jobProgress.setStringPainted(true);
+            jobProgress.setVisible(false);
+            cancelJobsButton = new JButton("Cancel Jobs");
+            cancelJobsButton.setEnabled(false);
+            JPanel jobs = new JPanel(new FlowLayout(FlowLayout.CENTER, 5, 0));
+            jobs.add(jobProgress);
+            jobs.add(cancelJobsButton);
             footer.add(statusLabel, BorderLayout.WEST);
-            footer.add(contextSizeLabel, BorderLayout.EAST);
+            footer.add(jobs, BorderLayout.CENTER);
+            JPanel metrics = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+            metrics.add(metricsLabel);
+            metrics.add(debugCheck);
+            metrics.add(contextSizeLabel);
+            footer.add(metrics, BorderLayout.EAST);
 
         
             JPanel topControls = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+            sessionSelector = new JComboBox<>();
+            sessionSelector.setPrototypeDisplayValue("https://www.example.com:8443");
+            sessionSelector.addActionListener(e -> selectedSession = (String) sessionSelector.getSelectedItem());
+            topControls.add(new JLabel("Session:"));
+            topControls.add(sessionSelector);
+            JCheckBox batchCheck = new JCheckBox("Batch all endpoints", batchMode);
+            batchCheck.setToolTipText("Split large sitemaps into several prompts instead of truncating them");
+            batchCheck.addItemListener(e -> batchMode = batchCheck.isSelected());
+            JSpinner parallelSpinner = new JSpinner(new SpinnerNumberModel(batchParallelism, 1, 16, 1));
+            parallelSpinner.addChangeListener(e -> batchParallelism = (Integer) parallelSpinner.getValue());
             resetButton = new JButton("Reset Context");
             refineButton = new JButton("Refine");
+            verifyButton = new JButton("Verify");
+            verifyButton.setToolTipText("Request the Paths and Files entries from the target and keep only live ones");
+            JCheckBox expansionCheck = new JCheckBox("Local variants", localExpansion);
+            expansionCheck.setToolTipText("Ask the AI for seed words only and generate case, backup, version and extension variants locally");
+            expansionCheck.addItemListener(e -> localExpansion = expansionCheck.isSelected());
+            passiveCheck = new JCheckBox("Passive mode");
+            passiveCheck.setToolTipText("Watch in-scope traffic and send only newly seen endpoints to the AI");
+            topControls.add(passiveCheck);
+            newOnlyCheck = new JCheckBox("New only");
+            newOnlyCheck.setToolTipText("Show only the AI entries first generated in this host's latest run");
+            topControls.add(newOnlyCheck);
+            topControls.add(expansionCheck);
+            topControls.add(batchCheck);
+            topControls.add(new JLabel("Parallel:"));
+            topControls.add(parallelSpinner);
+            JButton intruderButton = new JButton("Intruder Options");
+            intruderButton.setToolTipText("Transforms applied by the Baiwogen Intruder payload generators");
+            intruderButton.addActionListener(e -> editPayloadTransforms());
+            topControls.add(intruderButton);
+            JButton filtersButton = new JButton("Filters");
+            filtersButton.setToolTipText("Include and exclude rules for sitemap entries");
+            filtersButton.addActionListener(e -> editFilters());
+            topControls.add(filtersButton);
+            JButton importHitsButton = new JButton("Import Hits");
+            importHitsButton.setToolTipText("Import words known to exist, one per line with an optional hit count, to rank entries by");
+            importHitsButton.addActionListener(e -> importHits());
+            topControls.add(importHitsButton);
             topControls.add(resetButton);
             topControls.add(refineButton);
+            topControls.add(verifyButton);
 
         
             tabbedPane = new JTabbedPane();
-            textAreas = new HashMap<>();
-            String[] categories = {"Paths", "Files", "Params", "Headers"};
-            for (String cat : categories) {
-                JTextArea area = new JTextArea();
-                area.setEditable(false);
-                area.setLineWrap(true);
-                area.setWrapStyleWord(true);
-                JScrollPane scroll = new JScrollPane(area);
+            models = new HashMap<>();
+            for (String cat : CATEGORIES) {
+                WordListModel model = new WordListModel();
+                JList<String> list = new JList<>(model);
+                // A prototype value gives every row a fixed size, so only visible rows are ever measured.
+                list.setPrototypeCellValue("/an/average/length/wordlist/entry/for/layout");
+                list.setLayoutOrientation(JList.VERTICAL);
+                list.setCellRenderer(new DefaultListCellRenderer() {
+                    @Override
+                    public Component getListCellRendererComponent(JList<?> l, Object value, int index,
+                                                                  boolean selected, boolean focused) {
+                        Integer status = statuses.getOrDefault(cat, Map.of()).get(value);
+                        Object text = status == null ? value
+                            : value + "  [" + (status == Prober.STATUS_ERROR ? "error" : status) + "]";
+                        return super.getListCellRendererComponent(l, text, index, selected, focused);
+                    }
+                });
+                JScrollPane scroll = new JScrollPane(list);
                 JPanel panel = new JPanel(new BorderLayout());
 
         
@@ -55,18 +147,46 @@
                 toolBar.setFloatable(false);
                 JButton copyBtn = new JButton("Copy");
                 JButton saveBtn = new JButton("Save");
+                JTextField filterField = new JTextField(20);
+                filterField.setToolTipText("Filter entries (case-insensitive)");
                 toolBar.add(copyBtn);
                 toolBar.add(saveBtn);
+                toolBar.addSeparator();
+                toolBar.add(new JLabel("Filter: "));
+                toolBar.add(filterField);
 
         
-                copyBtn.addActionListener(e -> copyToClipboard(area.getText()));
-                saveBtn.addActionListener(e -> saveToFile(area.getText(), cat));
+                copyBtn.addActionListener(e -> copyToClipboard(cat));
+                saveBtn.addActionListener(e -> saveToFile(cat));
+
+                // Re-filter at most every 200 ms while typing.
+                Timer filterTimer = new Timer(200, e -> {
+                    model.setFilter(filterField.getText());
+                    updateTabTitle(cat);
+                });
+                filterTimer.setRepeats(false);
+                filterField.getDocument().addDocumentListener(new DocumentListener() {
+                    @Override
+                    public void insertUpdate(DocumentEvent e) {
+                        filterTimer.restart();
+                    }
+
+                    @Override
+                    public void removeUpdate(DocumentEvent e) {
+                        filterTimer.restart();
+                    }
+
+                    @Override
+                    public void changedUpdate(DocumentEvent e) {
+                        filterTimer.restart();
+                    }
+                });
 
                 panel.add(toolBar, BorderLayout.NORTH);
                 panel.add(scroll, BorderLayout.CENTER);
 
                 tabbedPane.addTab(cat, panel);
-                textAreas.put(cat, area);
+                models.put(cat, model);
             }
 
             this.add(topControls, BorderLayout.NORTH);
@@ -80,28 +200,111 @@
         }
 
         
-        public void updateContextSize(int size) {
-            SwingUtilities.invokeLater(() -> contextSizeLabel.setText("Context: " + size));
+        public void updateContextSize(int size, int tokens) {
+            SwingUtilities.invokeLater(() -> contextSizeLabel.setText("Context: " + size + " (~" + tokens + " tokens)"));
         }
 
-        public void setCategoryItems(String category, List<String> items) {
-            JTextArea area = textAreas.get(category);
-            if (area != null) {
-                StringBuilder sb = new StringBuilder();
-                for (String item : items) {
-                    sb.append(item).append("\n");
+        /**
+         * Shows pipeline metrics next to the context size.
+         *
+         * @param summary A one-line summary
+         * @param details A detailed HTML table, shown as a tooltip
+         */
+        public void updateMetrics(String summary, String details) {
+            SwingUtilities.invokeLater(() -> {
+                metricsLabel.setText(summary);
+                metricsLabel.setToolTipText(details);
+            });
+        }
+
+        @Override
+        public void onProgress(String jobName, String message) {
+            updateStatus(message);
+        }
+
+        @Override
+        public void onJobsChanged(int active) {
+            SwingUtilities.invokeLater(() -> {
+                jobProgress.setVisible(active > 0);
+                jobProgress.setIndeterminate(active > 0);
+                jobProgress.setString(active == 1 ? "1 job" : active + " jobs");
+                cancelJobsButton.setEnabled(active > 0);
+            });
+        }
+
+        /**
+         * Adds a session to the selector if it is not listed yet.
+         */
+        public void addSession(String key) {
+            SwingUtilities.invokeLater(() -> {
+                if (((DefaultComboBoxModel<String>) sessionSelector.getModel()).getIndexOf(key) < 0) {
+                    sessionSelector.addItem(key);
                 }
-                SwingUtilities.invokeLater(() -> area.setText(sb.toString()));
+            });
+        }
+
+        public void selectSession(String key) {
+            selectedSession = key;
+            SwingUtilities.invokeLater(() -> sessionSelector.setSelectedItem(key));
+        }
+
+        public String getSelectedSession() {
+            return selectedSession;
+        }
+
+        public void addSessionSelectionListener(ActionListener listener) {
+            sessionSelector.addActionListener(listener);
+        }
+
+        public boolean isLocalExpansion() {
+            return localExpansion;
+        }
+
+        public boolean isBatchMode() {
+            return batchMode;
+        }
+
+        public int getBatchParallelism() {
+            return batchParallelism;
+        }
+
+        public void setCategoryItems(String category, List<String> items) {
+            WordListModel model = models.get(category);
+            if (model != null) {
+                SwingUtilities.invokeLater(() -> {
+                    model.setItems(items);
+                    updateTabTitle(category);
+                });
             }
         }
 
+        /**
+         * Shows status codes next to the entries of a category.
+         *
+         * @param category      The category name
+         * @param entryStatuses Entry to status code; entries without one are shown plain
+         */
+        public void setCategoryStatuses(String category, Map<String, Integer> entryStatuses) {
+            SwingUtilities.invokeLater(() -> {
+                statuses.put(category, entryStatuses);
+                tabbedPane.repaint();
+            });
+        }
 
-        public void resetAll() {
-            textAreas.values().forEach(area ->
-                SwingUtilities.invokeLater(() -> area.setText(""))
-            );
+        /**
+         * Appends entries to a category without re-rendering the existing ones.
+         */
+        public void appendCategoryItems(String category, List<String> items) {
+            WordListModel model = models.get(category);
+            if (model != null) {
+                SwingUtilities.invokeLater(() -> {
+                    model.append(items);
+                    updateTabTitle(category);
+                });
+            }
         }
 
+
         
         public void addResetContextListener(ActionListener listener) {
             resetButton.addActionListener(listener);
@@ -113,26 +316,204 @@
         }
 
 
-        private void copyToClipboard(String text) {
+        public void addVerifyListener(ActionListener listener) {
+            verifyButton.addActionListener(listener);
+        }
+
+        public void addCancelJobsListener(ActionListener listener) {
+            cancelJobsButton.addActionListener(listener);
+        }
+
+        public void addPassiveModeListener(ItemListener listener) {
+            passiveCheck.addItemListener(listener);
+        }
+
+        public void addNewOnlyListener(ItemListener listener) {
+            newOnlyCheck.addItemListener(listener);
+        }
+
+        public void addDebugLoggingListener(ItemListener listener) {
+            debugCheck.addItemListener(listener);
+        }
+
+        public boolean isDebugLogging() {
+            return debugCheck.isSelected();
+        }
+
+        public boolean isPassiveMode() {
+            return passiveCheck.isSelected();
+        }
+
+        public boolean isNewOnly() {
+            return newOnlyCheck.isSelected();
+        }
+
+        public PayloadTransforms getPayloadTransforms() {
+            return payloadTransforms;
+        }
+
+        /**
+         * Sets where the Filters dialog reads the current rules from and
+         * where it hands newly compiled rules to.
+         */
+        public void setFilterSource(Supplier<FilterChain> source, Consumer<FilterChain> sink) {
+            this.filterSource = source;
+            this.filterSink = sink;
+        }
+
+        /**
+         * Sets what receives hit lists chosen with the Import Hits button.
+         */
+        public void setHitImporter(Consumer<File> importer) {
+            this.hitImporter = importer;
+        }
+
+        /**
+         * Sets where Copy and Save read entries from, given a category name.
+         * The returned lists must not change while they are being exported.
+         */
+        public void setWordSource(Function<String, List<String>> source) {
+            this.wordSource = source;
+        }
+
+
+        private void updateTabTitle(String category) {
+            WordListModel model = models.get(category);
+            int index = indexOfCategory(category);
+            String title = model.getSize() == model.totalSize()
+                ? category + " (" + model.totalSize() + ")"
+                : category + " (" + model.getSize() + "/" + model.totalSize() + ")";
+            tabbedPane.setTitleAt(index, title);
+        }
+
+        private int indexOfCategory(String category) {
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                if (CATEGORIES[i].equals(category)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void editPayloadTransforms() {
+            PayloadTransforms current = payloadTransforms;
+            JTextField extensions = new JTextField(String.join(", ", current.extensions()), 20);
+            JComboBox<PayloadTransforms.CaseStyle> caseStyle = new JComboBox<>(PayloadTransforms.CaseStyle.values());
+            caseStyle.setSelectedItem(current.caseStyle());
+            JCheckBox prefix = new JCheckBox("Prefix with generated sitemap path", current.prefixWithPath());
+
+            JPanel form = new JPanel(new GridLayout(0, 1, 0, 5));
+            form.add(new JLabel("Extra extensions (comma-separated, e.g. .bak, .old, ~):"));
+            form.add(extensions);
+            form.add(new JLabel("Case style:"));
+            form.add(caseStyle);
+            form.add(prefix);
+
+            int ret = JOptionPane.showConfirmDialog(this, form, "Intruder payload options",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (ret == JOptionPane.OK_OPTION) {
+                payloadTransforms = new PayloadTransforms(
+                    PayloadTransforms.parseExtensions(extensions.getText()),
+                    (PayloadTransforms.CaseStyle) caseStyle.getSelectedItem(),
+                    prefix.isSelected());
+                updateStatus("Intruder options updated.");
+            }
+        }
+
+        private void editFilters() {
+            FilterChain current = filterSource.get();
+            JTextArea rules = new JTextArea(current.text(), 12, 60);
+            rules.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+            JTextArea counts = new JTextArea(current.countsSummary(), 6, 60);
+            counts.setFont(rules.getFont());
+            counts.setEditable(false);
+
+            JPanel form = new JPanel(new BorderLayout(0, 5));
+            form.add(new JScrollPane(rules), BorderLayout.CENTER);
+            JPanel countsPanel = new JPanel(new BorderLayout(0, 5));
+            countsPanel.add(new JLabel("Entries decided by each rule since it was applied:"), BorderLayout.NORTH);
+            countsPanel.add(new JScrollPane(counts), BorderLayout.CENTER);
+            form.add(countsPanel, BorderLayout.SOUTH);
+
+            while (JOptionPane.showConfirmDialog(this, form, "Sitemap filters",
+                    JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) == JOptionPane.OK_OPTION) {
+                try {
+                    filterSink.accept(FilterChain.parse(rules.getText()));
+                    updateStatus("Filters updated.");
+                    return;
+                } catch (IllegalArgumentException ex) {
+                    JOptionPane.showMessageDialog(this, ex.getMessage(), "Invalid filter rule", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }
+
+        private static List<String> top(List<String> entries, int limit) {
+            return entries.size() > limit ? entries.subList(0, limit) : entries;
+        }
+
+        private void importHits() {
+            JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                hitImporter.accept(chooser.getSelectedFile());
+            }
+        }
+
+        private void copyToClipboard(String category) {
+            StringBuilder sb = new StringBuilder();
+            for (String item : wordSource.apply(category)) {
+                sb.append(item).append("\n");
+            }
             Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-            clipboard.setContents(new StringSelection(text), null);
+            clipboard.setContents(new StringSelection(sb.toString()), null);
             updateStatus("Copied to clipboard");
         }
 
-        private void saveToFile(String text, String category) {
-            try {
-                JFileChooser chooser = new JFileChooser();
-                chooser.setSelectedFile(new File(category + "_wordlist.txt"));
-                int ret = chooser.showSaveDialog(this);
-                if (ret == JFileChooser.APPROVE_OPTION) {
-                    File file = chooser.getSelectedFile();
-                    try (FileWriter writer = new FileWriter(file)) {
-                        writer.write(text);
+        private void saveToFile(String category) {
+            JComboBox<WordlistExporter.Profile> profile = new JComboBox<>(WordlistExporter.Profile.values());
+            JCheckBox gzip = new JCheckBox("gzip");
+            JSpinner top = new JSpinner(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 1000));
+            top.setToolTipText("Keep only the highest-ranked entries of each list; 0 keeps all");
+            JPanel options = new JPanel(new GridLayout(0, 1, 0, 5));
+            options.setBorder(new EmptyBorder(0, 10, 0, 0));
+            options.add(new JLabel("Format:"));
+            options.add(profile);
+            options.add(new JLabel("Top N (0 = all):"));
+            options.add(top);
+            options.add(gzip);
+
+            JFileChooser chooser = new JFileChooser();
+            chooser.setAccessory(options);
+            chooser.setSelectedFile(new File(category + "_wordlist.txt"));
+            int ret = chooser.showSaveDialog(this);
+            if (ret != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+
+            File file = chooser.getSelectedFile();
+            boolean compress = gzip.isSelected() || file.getName().endsWith(".gz");
+            WordlistExporter.Profile selected = (WordlistExporter.Profile) profile.getSelectedItem();
+            int limit = (Integer) top.getValue();
+            Function<String, List<String>> all = wordSource;
+            // Lists are kept sorted by rank, so the top entries are a prefix.
+            Function<String, List<String>> source = limit == 0 ? all
+                : c -> top(all.apply(c), limit);
+            updateStatus("Saving " + file.getName() + "...");
+            new SwingWorker<Long, Void>() {
+                @Override
+                protected Long doInBackground() throws Exception {
+                    return exporter.export(file.toPath(), compress, selected,
+                        source.apply(category), source.apply("Paths"), source.apply("Files"));
+                }
+
+                @Override
+                protected void done() {
+                    try {
+                        updateStatus("Saved " + get() + " lines to: " + file.getName());
+                    } catch (Exception ex) {
+                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                        updateStatus("Error saving file: " + cause.getMessage());
                     }
-                    updateStatus("Saved to: " + file.getName());
                 }
-            } catch (Exception ex) {
-                updateStatus("Error saving file: " + ex.getMessage());
-            }
+            }.execute();
         }
     }
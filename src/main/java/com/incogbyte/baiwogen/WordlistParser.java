@@ -0,0 +1,172 @@
+package com.incogbyte.baiwogen;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Error-tolerant reader for the wordlist JSON returned by the AI.
+ * <p>
+ * The output is walked token by token with a lenient {@link JsonReader}, so
+ * every array element that was read completely is kept even if the response
+ * is cut off, wrapped in Markdown fences or prose, or broken further on.
+ * Sections are recognised by their key anywhere in the document, so
+ * {@code {"wordlist": {"paths": [...]}}} works as well as the requested
+ * shape, and items given as objects ({@code {"path": "/x", "reason": "..."}})
+ * contribute their value field.
+ */
+final class WordlistParser {
+    private static final Set<String> VALUE_KEYS = Set.of(
+        "path", "file", "filename", "name", "param", "parameter", "value", "word", "entry", "url");
+
+    private WordlistParser() {
+    }
+
+    /**
+     * Parses an AI response into a result, salvaging what can be read.
+     *
+     * @param aiOutput The raw AI response
+     * @return The result; {@link WordlistResult#isComplete()} tells whether the whole document was read
+     * @throws IllegalArgumentException if the response contains no JSON object or nothing could be salvaged
+     */
+    static WordlistResult parse(String aiOutput) {
+        String json = extractJson(aiOutput);
+        WordlistResult result = new WordlistResult();
+        Deque<Frame> frames = new ArrayDeque<>();
+        String name = null;
+
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.setLenient(true);
+            while (true) {
+                JsonToken token = reader.peek();
+                if (token == JsonToken.END_DOCUMENT) {
+                    break;
+                }
+                Frame parent = frames.peek();
+                String category = categoryFor(parent, name);
+                switch (token) {
+                    case BEGIN_OBJECT -> {
+                        reader.beginObject();
+                        frames.push(new Frame(category, true, parent != null && !parent.inObject));
+                    }
+                    case BEGIN_ARRAY -> {
+                        reader.beginArray();
+                        frames.push(new Frame(category, false, false));
+                    }
+                    case END_OBJECT -> {
+                        reader.endObject();
+                        Frame done = frames.pop();
+                        // An item object without a known value key contributes its first single-word string.
+                        if (done.item && done.category != null && !done.picked && done.firstString != null) {
+                            result.add(done.category, done.firstString);
+                        }
+                    }
+                    case END_ARRAY -> {
+                        reader.endArray();
+                        frames.pop();
+                    }
+                    case NAME -> {
+                        name = reader.nextName();
+                        continue;
+                    }
+                    case STRING, NUMBER -> {
+                        String value = reader.nextString();
+                        if (parent == null || category == null) {
+                            break;
+                        }
+                        if (parent.item) {
+                            if (name != null && VALUE_KEYS.contains(name.toLowerCase(Locale.ROOT))) {
+                                result.add(category, value);
+                                parent.picked = true;
+                            } else if (parent.firstString == null && value.indexOf(' ') < 0) {
+                                parent.firstString = value;
+                            }
+                        } else {
+                            result.add(category, value);
+                        }
+                    }
+                    default -> reader.skipValue();
+                }
+                name = null;
+                // The document is done once the outermost value is closed; ignore trailing prose.
+                if (frames.isEmpty()) {
+                    break;
+                }
+            }
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            result.markIncomplete(e.getMessage());
+        }
+
+        if (!result.isComplete() && result.size() == 0) {
+            throw new IllegalArgumentException("Could not salvage any entries from AI output: " + result.problem());
+        }
+        return result;
+    }
+
+    /**
+     * Cuts the output down to the JSON object it contains: skips prose and
+     * Markdown fences before the first '{', and unwraps a response that was
+     * returned as one quoted, escaped JSON string.
+     */
+    private static String extractJson(String aiOutput) {
+        String text = aiOutput.trim();
+        int start = text.indexOf('{');
+        if (start < 0) {
+            throw new IllegalArgumentException("No JSON object found in AI output");
+        }
+        if (start > 0 && (text.charAt(start - 1) == '"' || text.charAt(start - 1) == '\'')
+                && text.indexOf("\\\"", start) >= 0) {
+            return text.substring(start)
+                       .replace("\\\"", "\"")
+                       .replace("\\n", "\n")
+                       .replace("\\\\", "\\");
+        }
+        return text.substring(start);
+    }
+
+    /**
+     * Returns the section a value belongs to. The first key on the way down
+     * that names a section decides; keys below it, such as {@code path} inside
+     * a file item, do not reassign the section.
+     */
+    private static String categoryFor(Frame parent, String name) {
+        if (parent == null) {
+            return null;
+        }
+        if (parent.category != null || name == null) {
+            return parent.category;
+        }
+        String key = name.toLowerCase(Locale.ROOT);
+        if (key.contains("file")) {
+            return WordlistResult.FILES;
+        }
+        if (key.contains("path") || key.contains("dir") || key.contains("route") || key.contains("endpoint")) {
+            return WordlistResult.PATHS;
+        }
+        if (key.contains("param")) {
+            return WordlistResult.PARAMS;
+        }
+        return null;
+    }
+
+    private static final class Frame {
+        private final String category;
+        private final boolean inObject;
+        /** An object that is an element of an array, i.e. one wordlist item. */
+        private final boolean item;
+        private boolean picked;
+        private String firstString;
+
+        private Frame(String category, boolean inObject, boolean item) {
+            this.category = category;
+            this.inObject = inObject;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.incogbyte.baiwogen;
+
+import burp.api.montoya.intruder.AttackConfiguration;
+import burp.api.montoya.intruder.GeneratedPayload;
+import burp.api.montoya.intruder.IntruderInsertionPoint;
+import burp.api.montoya.intruder.PayloadGenerator;
+import burp.api.montoya.intruder.PayloadGeneratorProvider;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Intruder payload source backed by one wordlist category of the selected session.
+ * <p>
+ * Payloads are produced lazily from the session's list as Intruder asks for
+ * them, with the configured {@link PayloadTransforms} applied per entry, so an
+ * attack never copies the wordlist or its expanded variants.
+ */
+public class WordlistPayloadProvider implements PayloadGeneratorProvider {
+    private final String category;
+    private final Supplier<Session> session;
+    private final Supplier<PayloadTransforms> transforms;
+
+    /**
+     * Creates a new WordlistPayloadProvider.
+     *
+     * @param category   The wordlist category, e.g. "Paths"
+     * @param session    Supplies the session selected when an attack starts
+     * @param transforms Supplies the transforms in effect when an attack starts
+     */
+    public WordlistPayloadProvider(String category, Supplier<Session> session, Supplier<PayloadTransforms> transforms) {
+        this.category = category;
+        this.session = session;
+        this.transforms = transforms;
+    }
+
+    @Override
+    public String displayName() {
+        return "Baiwogen " + category;
+    }
+
+    @Override
+    public PayloadGenerator providePayloadGenerator(AttackConfiguration attackConfiguration) {
+        Session current = session.get();
+        if (current == null) {
+            return insertionPoint -> GeneratedPayload.end();
+        }
+        return new Generator(current.items(category), transforms.get(), current.prefixPath());
+    }
+
+    private static final class Generator implements PayloadGenerator {
+        private final List<String> words;
+        private final PayloadTransforms transforms;
+        private final String path;
+        private final int variants;
+        private int word;
+        private int variant;
+
+        private Generator(List<String> words, PayloadTransforms transforms, String path) {
+            this.words = words;
+            this.transforms = transforms;
+            this.path = path;
+            this.variants = transforms.variantCount();
+        }
+
+        @Override
+        public synchronized GeneratedPayload generatePayloadFor(IntruderInsertionPoint insertionPoint) {
+            if (word >= words.size()) {
+                return GeneratedPayload.end();
+            }
+            String payload = transforms.apply(words.get(word), variant, path);
+            if (++variant == variants) {
+                variant = 0;
+                word++;
+            }
+            return GeneratedPayload.payload(payload);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.incogbyte.baiwogen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Orders wordlist entries by how likely they are to exist, most likely first.
+ * <p>
+ * An entry's score adds up three signals: how often its last segment hit and
+ * missed on past targets, according to the {@link HitIndex}; how often its
+ * segments occur in the target's own sitemap; and, for entries the AI wrote
+ * itself, their position in the AI's section, since the model lists its most
+ * confident guesses first. Local variants get no section score and so sort
+ * after the seeds they came from unless the other signals lift them. Counts
+ * are log-scaled, so no single signal drowns out the others, and entries
+ * with equal scores keep their original order.
+ */
+public class WordlistRanker {
+    private static final double HIT_WEIGHT = 4.0;
+    private static final double MISS_WEIGHT = 1.0;
+    private static final double SITEMAP_WEIGHT = 1.5;
+    private static final double SECTION_WEIGHT = 2.0;
+    private static final Pattern SEPARATORS = Pattern.compile("[/?&=]");
+
+    private final HitIndex hits;
+
+    /**
+     * Creates a new WordlistRanker.
+     *
+     * @param hits The hit frequencies learned on past targets
+     */
+    public WordlistRanker(HitIndex hits) {
+        this.hits = hits;
+    }
+
+    /**
+     * Counts the path segments and parameter names of extracted sitemap payloads.
+     *
+     * @param payloads Payloads as built by {@link PayloadExtractor}
+     * @return Lowercased segment or parameter name to its number of occurrences
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Integer> sitemapCounts(Collection<Map<String, Object>> payloads) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map<String, Object> payload : payloads) {
+            Object path = payload.get("path");
+            if (path instanceof String) {
+                for (String segment : ((String) path).split("/")) {
+                    if (!segment.isEmpty()) {
+                        counts.merge(segment.toLowerCase(Locale.ROOT), 1, Integer::sum);
+                    }
+                }
+            }
+            Object params = payload.get("queryParams");
+            if (params instanceof Map) {
+                for (String name : ((Map<String, ?>) params).keySet()) {
+                    counts.merge(name.toLowerCase(Locale.ROOT), 1, Integer::sum);
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Sorts entries by score.
+     *
+     * @param entries       The entries to rank
+     * @param aiSection     The entries as the AI listed them in their section, best first
+     * @param sitemapCounts Segment occurrences in the target's sitemap, see {@link #sitemapCounts}
+     * @return A new list with the same entries, most likely first
+     */
+    public List<String> rank(List<String> entries, List<String> aiSection, Map<String, Integer> sitemapCounts) {
+        Map<String, Integer> sectionRank = new HashMap<>(aiSection.size() * 2);
+        for (int i = 0; i < aiSection.size(); i++) {
+            sectionRank.putIfAbsent(aiSection.get(i), i);
+        }
+        int n = entries.size();
+        double[] scores = new double[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            String entry = entries.get(i);
+            Integer rank = sectionRank.get(entry);
+            double section = rank == null ? 0 : 1.0 - (double) rank / aiSection.size();
+            scores[i] = score(entry, section, sitemapCounts);
+            order[i] = i;
+        }
+        // Arrays.sort on objects is stable, so equal scores keep the incoming order.
+        Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+        List<String> out = new ArrayList<>(n);
+        for (Integer i : order) {
+            out.add(entries.get(i));
+        }
+        return out;
+    }
+
+    private double score(String entry, double section, Map<String, Integer> sitemapCounts) {
+        int seen = 0;
+        for (String segment : SEPARATORS.split(entry)) {
+            if (!segment.isEmpty()) {
+                seen += sitemapCounts.getOrDefault(segment.toLowerCase(Locale.ROOT), 0);
+            }
+        }
+        return HIT_WEIGHT * Math.log1p(hits.hits(entry))
+            - MISS_WEIGHT * Math.log1p(hits.misses(entry))
+            + SITEMAP_WEIGHT * Math.log1p(seen)
+            + SECTION_WEIGHT * section;
+    }
+}
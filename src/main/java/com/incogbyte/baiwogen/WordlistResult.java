@@ -0,0 +1,177 @@
+package com.incogbyte.baiwogen;
+
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The three wordlist sections returned by the AI: files, paths and params.
+ * Entries are de-duplicated and keep the order in which they were first seen.
+ */
+public class WordlistResult {
+    public static final String FILES = "fileVariations";
+    public static final String PATHS = "pathVariations";
+    public static final String PARAMS = "paramVariations";
+
+    private static final Gson GSON = new Gson();
+
+    private final Set<String> files = new LinkedHashSet<>();
+    private final Set<String> paths = new LinkedHashSet<>();
+    private final Set<String> params = new LinkedHashSet<>();
+    private String problem;
+
+    /**
+     * Parses the JSON object contained in an AI response, keeping every entry
+     * that could be read even if the response is truncated or malformed.
+     *
+     * @param aiOutput The raw AI response
+     * @return The parsed result; check {@link #isComplete()} for salvaged output
+     * @throws IllegalArgumentException if the response contains no JSON object or nothing could be salvaged
+     */
+    public static WordlistResult parse(String aiOutput) {
+        return WordlistParser.parse(aiOutput);
+    }
+
+    /**
+     * Adds all entries of another result to this one, skipping duplicates.
+     *
+     * @param other The result to merge in
+     * @return This result
+     */
+    public WordlistResult merge(WordlistResult other) {
+        files.addAll(other.files);
+        paths.addAll(other.paths);
+        params.addAll(other.params);
+        if (problem == null) {
+            problem = other.problem;
+        }
+        return this;
+    }
+
+    /**
+     * Returns whether the whole response was read. An incomplete result holds
+     * the entries salvaged before the point where reading failed.
+     *
+     * @return true if nothing was lost
+     */
+    public boolean isComplete() {
+        return problem == null;
+    }
+
+    /**
+     * Returns why reading stopped early.
+     *
+     * @return The problem, or null for a complete result
+     */
+    public String problem() {
+        return problem;
+    }
+
+    void markIncomplete(String problem) {
+        this.problem = problem == null ? "unreadable output" : problem;
+    }
+
+    /**
+     * Adds entries to a section, splitting comma-separated values.
+     *
+     * @param section One of {@link #FILES}, {@link #PATHS} or {@link #PARAMS}
+     * @param value   The raw value
+     */
+    void add(String section, String value) {
+        Set<String> target = switch (section) {
+            case FILES -> files;
+            case PATHS -> paths;
+            default -> params;
+        };
+        addSplit(target, List.of(value));
+    }
+
+    public List<String> files() {
+        return new ArrayList<>(files);
+    }
+
+    public List<String> paths() {
+        return new ArrayList<>(paths);
+    }
+
+    public List<String> params() {
+        return new ArrayList<>(params);
+    }
+
+    /**
+     * Returns the total number of entries across all sections.
+     *
+     * @return The entry count
+     */
+    public int size() {
+        return files.size() + paths.size() + params.size();
+    }
+
+    /**
+     * Returns a copy holding only as many entries as fit in a JSON object of
+     * the given length. Entries are taken from each section in turn, oldest
+     * first, so no section crowds out the others.
+     *
+     * @param maxChars The maximum length of {@link #toJson()} of the copy
+     * @return The limited copy
+     */
+    public WordlistResult limitedTo(int maxChars) {
+        WordlistResult out = new WordlistResult();
+        int length = out.toJson().length();
+        List<List<String>> sections = List.of(files(), paths(), params());
+        List<Set<String>> targets = List.of(out.files, out.paths, out.params);
+        for (int i = 0; ; i++) {
+            boolean any = false;
+            for (int s = 0; s < sections.size(); s++) {
+                if (i >= sections.get(s).size()) {
+                    continue;
+                }
+                any = true;
+                String entry = sections.get(s).get(i);
+                // The quoted entry, plus a separating comma.
+                int entryLength = GSON.toJson(entry).length() + 1;
+                if (length + entryLength > maxChars) {
+                    return out;
+                }
+                targets.get(s).add(entry);
+                length += entryLength;
+            }
+            if (!any) {
+                return out;
+            }
+        }
+    }
+
+    /**
+     * Serializes this result in the same shape the AI is asked to produce.
+     *
+     * @return The JSON object
+     */
+    public String toJson() {
+        Map<String, Set<String>> map = new LinkedHashMap<>();
+        map.put(FILES, files);
+        map.put(PATHS, paths);
+        map.put(PARAMS, params);
+        return GSON.toJson(map);
+    }
+
+    /**
+     * The AI sometimes returns a single comma-separated string instead of one
+     * entry per array element, so every element is split on commas.
+     */
+    private static void addSplit(Set<String> target, List<String> raw) {
+        for (String item : raw) {
+            for (String part : item.split(",")) {
+                part = part.trim();
+                if (!part.isEmpty()) {
+                    target.add(part);
+                }
+            }
+        }
+    }
+}